@@ -9,6 +9,7 @@ plugins {
     `java-library`
     `maven-publish`
     id("pl.allegro.tech.build.axion-release") version "1.13.3"
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 repositories {
@@ -74,6 +75,21 @@ testing {
 
 tasks.check {
     dependsOn(testing.suites.named("testModular"))
+    // Only compile benchmarks to detect compilation errors; run them manually with `./gradlew jmh`
+    dependsOn(tasks.named("jmhClasses"))
+}
+
+// Benchmarks are in src/jmh/java, see https://github.com/melix/jmh-gradle-plugin
+jmh {
+    jmhVersion.set("1.35")
+    // Report allocation rate
+    profilers.add("gc")
+    // Machine readable results, e.g. for comparing results of different releases
+    resultFormat.set("JSON")
+    // Benchmarks to run can be selected with `-PjmhIncludes=<regex>`
+    if (project.hasProperty("jmhIncludes")) {
+        includes.set(listOf(project.property("jmhIncludes") as String))
+    }
 }
 
 tasks.javadoc {
@@ -0,0 +1,64 @@
+package marcono1234.gson.recordadapter;
+
+import marcono1234.gson.recordadapter.BenchmarkData.Small;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of invoking a Record component accessor: {@link Method#invoke(Object, Object...)}
+ * (used by previous versions of this library), a {@link MethodHandle} of type {@code (Object)Object}
+ * as used by the adapters for the generic path, and a {@code (Object)long} handle as used for primitive
+ * components.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+    private Object record;
+    private Method accessorMethod;
+    private MethodHandle accessorHandle;
+    private MethodHandle primitiveAccessorHandle;
+
+    @Setup
+    public void setup() throws Exception {
+        record = new Small(1, "name", true);
+        accessorMethod = Small.class.getRecordComponents()[0].getAccessor();
+        accessorMethod.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(accessorMethod);
+        accessorHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+        primitiveAccessorHandle = MethodHandles.filterReturnValue(handle, PrimitiveKind.INT.toSlot())
+            .asType(MethodType.methodType(long.class, Object.class));
+    }
+
+    @Benchmark
+    public Object methodInvoke() throws Exception {
+        return accessorMethod.invoke(record);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return (Object) accessorHandle.invokeExact(record);
+    }
+
+    @Benchmark
+    public long primitiveMethodHandle() throws Throwable {
+        return (long) primitiveAccessorHandle.invokeExact(record);
+    }
+}
@@ -0,0 +1,179 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Record classes used by the benchmarks, and for comparison equivalent regular classes which are
+ * handled by Gson's reflection based adapter.
+ */
+class BenchmarkData {
+    private BenchmarkData() { }
+
+    record Small(int id, String name, boolean active) { }
+
+    static class SmallClass {
+        int id;
+        String name;
+        boolean active;
+
+        SmallClass(int id, String name, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.active = active;
+        }
+    }
+
+    record Wide(
+        int i1, int i2, int i3, int i4,
+        long l1, long l2, long l3, long l4,
+        double d1, double d2, double d3, double d4,
+        boolean b1, boolean b2, boolean b3, boolean b4,
+        String s1, String s2, String s3, String s4
+    ) { }
+
+    static class WideClass {
+        int i1, i2, i3, i4;
+        long l1, l2, l3, l4;
+        double d1, d2, d3, d4;
+        boolean b1, b2, b3, b4;
+        String s1, s2, s3, s4;
+    }
+
+    record Nested(String id, Small owner, List<Small> members) { }
+
+    static class NestedClass {
+        String id;
+        SmallClass owner;
+        List<SmallClass> members;
+
+        NestedClass(String id, SmallClass owner, List<SmallClass> members) {
+            this.id = id;
+            this.owner = owner;
+            this.members = members;
+        }
+    }
+
+    record Page<T>(int page, int total, List<T> items) { }
+
+    static class PageClass<T> {
+        int page;
+        int total;
+        List<T> items;
+
+        PageClass(int page, int total, List<T> items) {
+            this.page = page;
+            this.total = total;
+            this.items = items;
+        }
+    }
+
+    /** Adapter writing strings in upper case, used with {@link JsonAdapter @JsonAdapter} */
+    static class UpperCaseAdapter extends TypeAdapter<String> {
+        // Must be public to be usable by JsonAdapterCreator.DEFAULT_CONSTRUCTOR_INVOKER
+        public UpperCaseAdapter() { }
+
+        @Override
+        public void write(JsonWriter out, String value) throws IOException {
+            out.value(value.toUpperCase(Locale.ROOT));
+        }
+
+        @Override
+        public String read(JsonReader in) throws IOException {
+            return in.nextString().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    record WithJsonAdapter(@JsonAdapter(UpperCaseAdapter.class) String code, int value) { }
+
+    static class WithJsonAdapterClass {
+        @JsonAdapter(UpperCaseAdapter.class)
+        String code;
+        int value;
+
+        WithJsonAdapterClass(String code, int value) {
+            this.code = code;
+            this.value = value;
+        }
+    }
+
+    private static List<Small> createSmallList(int count) {
+        List<Small> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new Small(i, "name-" + i, i % 2 == 0));
+        }
+        return list;
+    }
+
+    private static List<SmallClass> createSmallClassList(int count) {
+        List<SmallClass> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new SmallClass(i, "name-" + i, i % 2 == 0));
+        }
+        return list;
+    }
+
+    /**
+     * Shape of the benchmarked data; for every shape a Record and an equivalent regular class exist.
+     */
+    enum Shape {
+        SMALL(
+            Small.class, new Small(1, "name", true),
+            SmallClass.class, new SmallClass(1, "name", true)
+        ),
+        WIDE(
+            Wide.class, new Wide(
+                1, 2, 3, 4,
+                5L, 6L, 7L, 8L,
+                1.5, 2.5, 3.5, 4.5,
+                true, false, true, false,
+                "a", "b", "c", "d"
+            ),
+            WideClass.class, createWideClass()
+        ),
+        NESTED(
+            Nested.class, new Nested("group", new Small(0, "owner", true), createSmallList(5)),
+            NestedClass.class, new NestedClass("group", new SmallClass(0, "owner", true), createSmallClassList(5))
+        ),
+        GENERIC(
+            new TypeToken<Page<Small>>() {}.getType(), new Page<>(1, 10, createSmallList(5)),
+            new TypeToken<PageClass<SmallClass>>() {}.getType(), new PageClass<>(1, 10, createSmallClassList(5))
+        ),
+        JSON_ADAPTER(
+            WithJsonAdapter.class, new WithJsonAdapter("code", 1),
+            WithJsonAdapterClass.class, new WithJsonAdapterClass("code", 1)
+        );
+
+        final Type recordType;
+        final Object recordValue;
+        final Type classType;
+        final Object classValue;
+
+        Shape(Type recordType, Object recordValue, Type classType, Object classValue) {
+            this.recordType = Objects.requireNonNull(recordType);
+            this.recordValue = Objects.requireNonNull(recordValue);
+            this.classType = Objects.requireNonNull(classType);
+            this.classValue = Objects.requireNonNull(classValue);
+        }
+
+        private static WideClass createWideClass() {
+            WideClass c = new WideClass();
+            c.i1 = 1; c.i2 = 2; c.i3 = 3; c.i4 = 4;
+            c.l1 = 5L; c.l2 = 6L; c.l3 = 7L; c.l4 = 8L;
+            c.d1 = 1.5; c.d2 = 2.5; c.d3 = 3.5; c.d4 = 4.5;
+            c.b1 = true; c.b2 = false; c.b3 = true; c.b4 = false;
+            c.s1 = "a"; c.s2 = "b"; c.s3 = "c"; c.s4 = "d";
+            return c;
+        }
+    }
+}
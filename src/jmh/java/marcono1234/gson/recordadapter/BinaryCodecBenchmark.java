@@ -0,0 +1,83 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import marcono1234.gson.recordadapter.BenchmarkData.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding and decoding Records with {@link RecordBinaryCodec} with writing and reading them as
+ * JSON bytes using the adapters created by {@link RecordTypeAdapterFactory}. The JSON benchmarks include
+ * the UTF-8 conversion because the binary codec produces bytes as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryCodecBenchmark {
+    @Param
+    public Shape shape;
+
+    private TypeAdapter<Object> adapter;
+    private RecordBinaryCodec<Object> codec;
+    private Object value;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+
+        @SuppressWarnings("unchecked")
+        TypeToken<Object> type = (TypeToken<Object>) TypeToken.get(shape.recordType);
+        adapter = gson.getAdapter(type);
+        codec = RecordBinaryCodec.create(gson, type);
+        value = shape.recordValue;
+        json = adapter.toJson(value).getBytes(StandardCharsets.UTF_8);
+        binary = codec.encode(value);
+
+        if (!value.equals(codec.decode(binary))) {
+            throw new IllegalStateException("Binary codec does not preserve value for " + shape);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        return adapter.toJson(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        return codec.encode(value);
+    }
+
+    @Benchmark
+    public Object readJson() throws IOException {
+        return adapter.fromJson(new String(json, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object readBinary() {
+        return codec.decode(binary);
+    }
+}
@@ -0,0 +1,108 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import marcono1234.gson.recordadapter.BenchmarkData.Small;
+import marcono1234.gson.recordadapter.BenchmarkData.Wide;
+import marcono1234.gson.recordadapter.BenchmarkData.WithJsonAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of creating the type adapters for a Record class and all Record classes it
+ * references, as it occurs on first use of a {@code Gson} instance.
+ *
+ * <p>{@link #createCold()} runs only once per JVM fork, so it includes class loading, reflection and
+ * JIT warm-up of this library, like it occurs on application startup. {@link #createWarm()} runs
+ * repeatedly in the same JVM and therefore measures the cost of creating adapters for an additional
+ * {@code Gson} instance, when Record metadata is already cached.
+ *
+ * @see ResolveComponentTypesBenchmark
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CreationBenchmark {
+    // Record graphs of increasing depth, each level references the previous one twice
+    record Depth0(int i, String s, boolean b, List<String> l) { }
+    record Depth1(Depth0 a, Depth0 b, long l) { }
+    record Depth2(Depth1 a, Depth1 b, long l) { }
+    record Depth3(Depth2 a, Depth2 b, long l) { }
+    record Depth4(Depth3 a, Depth3 b, long l) { }
+    record Depth5(Depth4 a, Depth4 b, long l) { }
+    record Depth6(Depth5 a, Depth5 b, long l) { }
+    record Depth7(Depth6 a, Depth6 b, long l) { }
+    record Depth8(Depth7 a, Depth7 b, long l) { }
+
+    /** Generic Record whose component types require resolving nested type variables */
+    record DeepGeneric<K, V>(
+        Map<K, List<Set<V>>> map,
+        List<Map<String, List<V>>> nested,
+        V[] array,
+        Collection<? extends List<? super K>> wildcards,
+        GenericHolder<List<V>> holder
+    ) { }
+
+    record GenericHolder<T>(T value, List<T> values) { }
+
+    /** Mix of the other Record types, including one using {@code @JsonAdapter} */
+    record Mixed(Small small, Wide wide, WithJsonAdapter withJsonAdapter, Depth4 depth, DeepGeneric<String, Small> generic) { }
+
+    public enum Graph {
+        SMALL(Small.class),
+        WIDE(Wide.class),
+        DEPTH_4(Depth4.class),
+        DEPTH_8(Depth8.class),
+        DEEP_GENERIC(new TypeToken<DeepGeneric<String, Small>>() {}.getType()),
+        MIXED(Mixed.class);
+
+        final TypeToken<?> type;
+
+        Graph(Type type) {
+            this.type = TypeToken.get(type);
+        }
+    }
+
+    @Param
+    public Graph graph;
+
+    private static Gson createGson() {
+        return new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    // Many forks because each fork only provides a single measurement
+    @Fork(20)
+    public Object createCold() {
+        return createGson().getAdapter(graph.type);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public Object createWarm() {
+        return createGson().getAdapter(graph.type);
+    }
+}
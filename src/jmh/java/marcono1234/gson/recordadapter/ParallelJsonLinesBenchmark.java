@@ -0,0 +1,94 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import marcono1234.gson.recordadapter.BenchmarkData.Wide;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how reading JSON Lines data with {@link ParallelJsonLinesReader} scales with the number of
+ * threads, compared to sequential reading with {@link JsonLinesReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelJsonLinesBenchmark {
+    private static final int LINES_COUNT = 100_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Gson gson;
+    private String data;
+    private ExecutorService executor;
+    private ParallelJsonLinesReader<Wide> parallelReader;
+
+    @Setup
+    public void setup() throws IOException {
+        gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+
+        StringWriter stringWriter = new StringWriter();
+        try (JsonLinesWriter<Wide> writer = new JsonLinesWriter<>(gson, Wide.class, stringWriter)) {
+            for (int i = 0; i < LINES_COUNT; i++) {
+                writer.write(new Wide(
+                    i, i + 1, i + 2, i + 3,
+                    i * 10L, i * 11L, i * 12L, i * 13L,
+                    i / 2.0, i / 3.0, i / 4.0, i / 5.0,
+                    i % 2 == 0, i % 3 == 0, i % 4 == 0, i % 5 == 0,
+                    "a" + i, "b" + i, "c" + i, "d" + i
+                ));
+            }
+        }
+        data = stringWriter.toString();
+
+        executor = Executors.newFixedThreadPool(threads);
+        parallelReader = new ParallelJsonLinesReader<>(gson, Wide.class, executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** Baseline; does not depend on {@link #threads} */
+    @Benchmark
+    public void sequential(Blackhole blackhole) throws IOException {
+        try (JsonLinesReader<Wide> reader = new JsonLinesReader<>(gson, Wide.class, new StringReader(data))) {
+            reader.forEachRemaining(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void parallelOrdered(Blackhole blackhole) throws IOException, InterruptedException {
+        parallelReader.readOrdered(new StringReader(data), blackhole::consume);
+    }
+
+    @Benchmark
+    public void parallelUnordered(Blackhole blackhole) throws IOException, InterruptedException {
+        parallelReader.readUnordered(new StringReader(data), blackhole::consume);
+    }
+}
@@ -0,0 +1,55 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.reflect.TypeToken;
+import marcono1234.gson.recordadapter.BenchmarkData.Small;
+import marcono1234.gson.recordadapter.CreationBenchmark.DeepGeneric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of the component types of a deeply generic Record class, without the cache
+ * used by {@link RecordTypeAdapterFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveComponentTypesBenchmark {
+    private TypeToken<?> recordType;
+    private Type[] componentTypes;
+    private ComponentTypeHelper.ResolvedTypesCache cache;
+
+    @Setup
+    public void setup() {
+        recordType = new TypeToken<DeepGeneric<String, Small>>() {};
+        componentTypes = Arrays.stream(DeepGeneric.class.getRecordComponents())
+            .map(RecordComponent::getGenericType)
+            .toArray(Type[]::new);
+        cache = new ComponentTypeHelper.ResolvedTypesCache(DeepGeneric.class, componentTypes, ComponentTypeHelper.ResolvedTypesCache.DEFAULT_MAX_SIZE);
+    }
+
+    @Benchmark
+    public Type[] resolve() {
+        return ComponentTypeHelper.resolveComponentTypes(recordType, componentTypes);
+    }
+
+    @Benchmark
+    public Type[] resolveCached() {
+        return cache.resolve(recordType);
+    }
+}
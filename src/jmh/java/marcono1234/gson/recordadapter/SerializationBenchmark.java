@@ -0,0 +1,90 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import marcono1234.gson.recordadapter.BenchmarkData.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares read and write throughput of the adapters created by {@link RecordTypeAdapterFactory} with
+ * the one of Gson's reflection based adapter for equivalent regular classes.
+ *
+ * <p>Run with the GC profiler (enabled by default in the build configuration) to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param
+    public Shape shape;
+
+    /** Whether to use a Record class or an equivalent regular class */
+    @Param({"record", "class"})
+    public String kind;
+
+    private TypeAdapter<Object> adapter;
+    private Object value;
+    private String json;
+
+    @Setup
+    public void setup() {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+
+        boolean isRecord = switch (kind) {
+            case "record" -> true;
+            case "class" -> false;
+            default -> throw new IllegalArgumentException("Unknown kind: " + kind);
+        };
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(isRecord ? shape.recordType : shape.classType));
+        this.adapter = adapter;
+        value = isRecord ? shape.recordValue : shape.classValue;
+        json = adapter.toJson(value);
+
+        // Verify that record and class produce the same JSON data, otherwise the comparison would not be fair
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Object> otherAdapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(isRecord ? shape.classType : shape.recordType));
+        String otherJson = otherAdapter.toJson(isRecord ? shape.classValue : shape.recordValue);
+        if (!json.equals(otherJson)) {
+            throw new IllegalStateException("Different JSON data for " + shape + ":\n" + json + "\n" + otherJson);
+        }
+    }
+
+    @Benchmark
+    public String write() {
+        return adapter.toJson(value);
+    }
+
+    @Benchmark
+    public String writeCompactJsonWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+        adapter.write(new CompactJsonWriter(writer), value);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        return adapter.fromJson(json);
+    }
+}
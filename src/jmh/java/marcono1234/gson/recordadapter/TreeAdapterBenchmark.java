@@ -0,0 +1,137 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.reflect.TypeToken;
+import marcono1234.gson.recordadapter.BenchmarkData.Small;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link JsonAdapter @JsonAdapter} referencing a {@link JsonSerializer} and / or
+ * {@link JsonDeserializer} for a large component value, compared to using the streaming type adapter.
+ * A {@link JsonElement} tree is only created for the direction which has a serializer or deserializer;
+ * the other direction uses the streaming type adapter.
+ *
+ * <p>Run with the GC profiler (enabled by default in the build configuration) to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeAdapterBenchmark {
+    private static final Type LIST_TYPE = new TypeToken<List<Small>>() {}.getType();
+
+    static class ListSerializer implements JsonSerializer<List<Small>> {
+        public ListSerializer() { }
+
+        @Override
+        public JsonElement serialize(List<Small> src, Type typeOfSrc, JsonSerializationContext context) {
+            return context.serialize(src, LIST_TYPE);
+        }
+    }
+
+    static class ListDeserializer implements JsonDeserializer<List<Small>> {
+        public ListDeserializer() { }
+
+        @Override
+        public List<Small> deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+            return context.deserialize(json, LIST_TYPE);
+        }
+    }
+
+    static class ListSerializerDeserializer implements JsonSerializer<List<Small>>, JsonDeserializer<List<Small>> {
+        public ListSerializerDeserializer() { }
+
+        @Override
+        public JsonElement serialize(List<Small> src, Type typeOfSrc, JsonSerializationContext context) {
+            return context.serialize(src, LIST_TYPE);
+        }
+
+        @Override
+        public List<Small> deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+            return context.deserialize(json, LIST_TYPE);
+        }
+    }
+
+    record Plain(List<Small> items) { }
+    record WithSerializer(@JsonAdapter(ListSerializer.class) List<Small> items) { }
+    record WithDeserializer(@JsonAdapter(ListDeserializer.class) List<Small> items) { }
+    record WithSerializerDeserializer(@JsonAdapter(ListSerializerDeserializer.class) List<Small> items) { }
+
+    public enum Variant {
+        /** No {@code @JsonAdapter}, streaming type adapter only */
+        TYPE_ADAPTER(Plain.class),
+        SERIALIZER(WithSerializer.class),
+        DESERIALIZER(WithDeserializer.class),
+        SERIALIZER_DESERIALIZER(WithSerializerDeserializer.class);
+
+        final Class<?> recordType;
+
+        Variant(Class<?> recordType) {
+            this.recordType = recordType;
+        }
+    }
+
+    @Param
+    public Variant variant;
+
+    @Param({"10", "1000"})
+    public int itemsCount;
+
+    private TypeAdapter<Object> adapter;
+    private Object value;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+
+        List<Small> items = new ArrayList<>(itemsCount);
+        for (int i = 0; i < itemsCount; i++) {
+            items.add(new Small(i, "name-" + i, i % 2 == 0));
+        }
+        value = variant.recordType.getDeclaredConstructor(List.class).newInstance(items);
+
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(variant.recordType);
+        this.adapter = adapter;
+        json = adapter.toJson(value);
+    }
+
+    @Benchmark
+    public String write() {
+        return adapter.toJson(value);
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        return adapter.fromJson(json);
+    }
+}
@@ -0,0 +1,124 @@
+package marcono1234.gson.recordadapter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe cache with a maximum size. When the maximum size is reached, entries are evicted using the
+ * CLOCK (second chance) policy: every entry has a flag which is set when the entry is used, and the
+ * entries are visited in a circular order; an entry whose flag is set gets a second chance and only has
+ * its flag cleared, the first entry whose flag is not set is evicted. Recently used entries are therefore
+ * kept, and lookups do not need a lock, only adding entries does.
+ *
+ * @param <K>
+ *      type of the keys
+ * @param <V>
+ *      type of the values
+ */
+final class BoundedCache<K, V> {
+    /**
+     * Counters for the {@linkplain CacheStatistics statistics} of one or multiple caches.
+     */
+    static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        CacheStatistics getStatistics() {
+            return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        /** Whether the entry has been used since the clock hand last visited it */
+        volatile boolean isReferenced;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final Counters counters;
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    // Fields below are guarded by `this`
+    /** Entries in the order in which the clock hand visits them */
+    private final Entry<K, V>[] clock;
+    /** Number of used elements of {@link #clock} */
+    private int clockSize;
+    /** Index of the next entry in {@link #clock} to consider for eviction */
+    private int clockHand;
+
+    /**
+     * @param maxSize
+     *      the maximum number of entries, must be positive
+     * @param counters
+     *      the counters to update when the cache is used
+     */
+    BoundedCache(int maxSize, Counters counters) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive: " + maxSize);
+        }
+        @SuppressWarnings("unchecked")
+        Entry<K, V>[] clock = (Entry<K, V>[]) new Entry<?, ?>[maxSize];
+        this.clock = clock;
+        this.counters = counters;
+    }
+
+    /**
+     * Gets the cached value for the key, and marks it as recently used; returns {@code null} if there
+     * is no cached value.
+     */
+    V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            counters.misses.increment();
+            return null;
+        }
+        counters.hits.increment();
+        // Avoid write if flag is already set, to reduce contention
+        if (!entry.isReferenced) {
+            entry.isReferenced = true;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Adds the value to the cache, unless a value for the key exists already, possibly evicting another
+     * entry. Does not count as usage of the entry.
+     *
+     * @return
+     *      the existing value for the key; {@code null} if the value has been added
+     */
+    synchronized V putIfAbsent(K key, V value) {
+        Entry<K, V> existing = entries.get(key);
+        if (existing != null) {
+            return existing.value;
+        }
+
+        Entry<K, V> entry = new Entry<>(key, value);
+        if (clockSize < clock.length) {
+            clock[clockSize++] = entry;
+        } else {
+            // Terminates after at most one full rotation, after which all flags have been cleared
+            while (clock[clockHand].isReferenced) {
+                clock[clockHand].isReferenced = false;
+                clockHand = (clockHand + 1) % clock.length;
+            }
+            entries.remove(clock[clockHand].key);
+            counters.evictions.increment();
+            clock[clockHand] = entry;
+            clockHand = (clockHand + 1) % clock.length;
+        }
+        entries.put(key, entry);
+        return null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,16 @@
+package marcono1234.gson.recordadapter;
+
+/**
+ * Statistics of a cache used by {@link RecordTypeAdapterFactory}.
+ *
+ * @param hits
+ *      number of lookups for which a cached entry existed
+ * @param misses
+ *      number of lookups for which no cached entry existed and the entry had to be created
+ * @param evictions
+ *      number of entries which have been removed from the cache because it reached its maximum size
+ * @see RecordTypeAdapterFactory#getComponentTypesCacheStatistics()
+ * @see RecordTypeAdapterFactory#getStringInternPoolStatistics()
+ */
+public record CacheStatistics(long hits, long misses, long evictions) {
+}
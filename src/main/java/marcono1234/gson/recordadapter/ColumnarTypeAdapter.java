@@ -0,0 +1,55 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Type adapter for a {@code List} or an array of Records, which uses the columnar encoding, created by
+ * {@link RecordTypeAdapterFactory}. Instead of one JSON object per Record, a single JSON object is written
+ * which has one property per component, whose value is a JSON array containing the values of that component
+ * for all Records, for example {@code {"a":[1,2],"b":["x","y"]}}. The Records are converted by the
+ * {@link RecordTypeAdapter} of the element type, which also provides the component adapters.
+ */
+class ColumnarTypeAdapter extends TypeAdapter<Object> {
+    private final RecordTypeAdapter<?> recordAdapter;
+    /** Component type of the array; {@code null} if this adapter is for a {@code List} */
+    private final Class<?> arrayComponentType;
+
+    ColumnarTypeAdapter(RecordTypeAdapter<?> recordAdapter, Class<?> arrayComponentType) {
+        this.recordAdapter = recordAdapter;
+        this.arrayComponentType = arrayComponentType;
+    }
+
+    @Override
+    public void write(JsonWriter out, Object value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        List<?> records = arrayComponentType == null ? (List<?>) value : Arrays.asList((Object[]) value);
+        recordAdapter.writeColumns(out, records);
+    }
+
+    @Override
+    public Object read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.skipValue();
+            return null;
+        }
+
+        List<?> records = recordAdapter.readColumns(in);
+        if (arrayComponentType == null) {
+            return records;
+        }
+        Object[] array = (Object[]) Array.newInstance(arrayComponentType, records.size());
+        return records.toArray(array);
+    }
+}
@@ -0,0 +1,190 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * {@link JsonWriter} which supports writing the property names of Records in pre-encoded form.
+ *
+ * <p>The type adapters created by {@link RecordTypeAdapterFactory} encode the JSON property names of
+ * Record components (that means escape them and enclose them in double quotes) only once when the
+ * adapter is created. When serializing to a {@code CompactJsonWriter} these pre-encoded names are
+ * written as is, instead of escaping the names again for every serialized Record instance. For all
+ * other JSON data and for other {@code JsonWriter} instances the names are written as usual.
+ *
+ * <p>All other functionality is provided by {@code JsonWriter} itself, so this writer produces the same
+ * output as a regular {@code JsonWriter} and respects all of its settings, such as
+ * {@linkplain #setLenient(boolean) lenient}, {@linkplain #setHtmlSafe(boolean) HTML-safe},
+ * {@linkplain #setSerializeNulls(boolean) serialize nulls} and {@linkplain #setIndent(String) indentation}.
+ * It can be used with {@link Gson#toJson(Object, Type, JsonWriter)}:
+ * <pre>{@code
+ * gson.toJson(myRecord, MyRecord.class, new CompactJsonWriter(writer));
+ * }</pre>
+ *
+ * <p>The writer does not buffer any data itself; it is recommended to use a buffered {@code Writer}
+ * as underlying writer.
+ */
+public final class CompactJsonWriter extends JsonWriter {
+    /**
+     * Property name of a Record component in pre-encoded form.
+     */
+    static final class EncodedName {
+        final String name;
+        final String encoded;
+        final String htmlSafeEncoded;
+
+        private EncodedName(String name, String encoded, String htmlSafeEncoded) {
+            this.name = name;
+            this.encoded = encoded;
+            this.htmlSafeEncoded = htmlSafeEncoded;
+        }
+
+        static EncodedName encode(String name) {
+            return new EncodedName(name, encodeString(name, false), encodeString(name, true));
+        }
+
+        // Uses JsonWriter for encoding to have the same escaping as for regular names
+        private static String encodeString(String value, boolean htmlSafe) {
+            StringWriter stringWriter = new StringWriter();
+            JsonWriter jsonWriter = new JsonWriter(stringWriter);
+            jsonWriter.setHtmlSafe(htmlSafe);
+            try {
+                jsonWriter.value(value);
+            } catch (IOException e) {
+                // Should not happen for StringWriter
+                throw new UncheckedIOException(e);
+            }
+            return stringWriter.toString();
+        }
+    }
+
+    /**
+     * Writer between {@code JsonWriter} and the underlying writer, which replaces the placeholder name
+     * written by {@code JsonWriter} with the pre-encoded name.
+     *
+     * <p>For a pre-encoded name, {@code JsonWriter} is given the empty string as name, so it performs all
+     * the bookkeeping for the name (such as writing a separating comma and indentation) but has nothing
+     * to escape; the quotes of the empty string are then replaced with the pre-encoded name.
+     */
+    private static final class NameWriter extends Writer {
+        private final Writer out;
+        /** Pre-encoded name replacing the next placeholder name; {@code null} if there is none */
+        private String pendingName;
+        /** Whether the opening quote of the placeholder name has been written */
+        private boolean isInPlaceholder;
+
+        NameWriter(Writer out) {
+            this.out = out;
+        }
+
+        void setPendingName(String encodedName) {
+            pendingName = encodedName;
+            isInPlaceholder = false;
+        }
+
+        void clearPendingName() {
+            pendingName = null;
+            isInPlaceholder = false;
+        }
+
+        private void writePlaceholderChar(char c) throws IOException {
+            if (!isInPlaceholder) {
+                if (c == '"') {
+                    isInPlaceholder = true;
+                } else {
+                    // Separator and indentation before the name
+                    out.write(c);
+                }
+            } else if (c == '"') {
+                out.write(pendingName);
+                clearPendingName();
+            } else {
+                throw new IllegalStateException("Unexpected character in placeholder name: " + c);
+            }
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (pendingName == null) {
+                out.write(c);
+            } else {
+                writePlaceholderChar((char) c);
+            }
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (pendingName == null) {
+                out.write(cbuf, off, len);
+            } else {
+                for (int i = 0; i < len; i++) {
+                    write(cbuf[off + i]);
+                }
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            if (pendingName == null) {
+                out.write(str, off, len);
+            } else {
+                for (int i = 0; i < len; i++) {
+                    write(str.charAt(off + i));
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private final NameWriter nameWriter;
+
+    /**
+     * Creates a new instance that writes a JSON-encoded stream to {@code out}.
+     *
+     * @param out
+     *      the writer to write the JSON data to
+     */
+    public CompactJsonWriter(Writer out) {
+        this(new NameWriter(Objects.requireNonNull(out, "out == null")));
+    }
+
+    private CompactJsonWriter(NameWriter nameWriter) {
+        super(nameWriter);
+        this.nameWriter = nameWriter;
+    }
+
+    /**
+     * Writes the property name of the next value, using the pre-encoded form of the name.
+     */
+    void encodedName(EncodedName name) throws IOException {
+        // Placeholder which requires no escaping
+        super.name("");
+        nameWriter.setPendingName(isHtmlSafe() ? name.htmlSafeEncoded : name.encoded);
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        super.nullValue();
+        if (!getSerializeNulls()) {
+            // JsonWriter might have omitted the name
+            nameWriter.clearPendingName();
+        }
+        return this;
+    }
+}
@@ -2,7 +2,9 @@ package marcono1234.gson.recordadapter;
 
 import com.google.gson.reflect.TypeToken;
 
+import java.lang.reflect.Executable;
 import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -226,6 +228,113 @@ class ComponentTypeHelper {
         return resolvedComponentTypes;
     }
 
+    /**
+     * Bounded cache of resolved component types of a Record class, keyed by the Record type for which the
+     * types are resolved. The same Record class is often used with the same type arguments, for example
+     * when creating adapters for multiple {@code Gson} instances, so this avoids resolving the types again.
+     *
+     * <p>Once the maximum size is reached, an entry which has not been used recently is evicted when a new
+     * one is added, see {@link BoundedCache}.
+     *
+     * <p>The cache is referenced by the {@code ClassValue} of {@link RecordMetadata}, so its entries are kept
+     * as long as the Record class is loaded. To not prevent unloading of other classes, types are only cached
+     * if all classes they refer to are loaded by the class loader of the Record class or one of its ancestors;
+     * for example {@code MyRecord<Foo>} is not cached if {@code Foo} is loaded by a child class loader,
+     * such as the class loader of a web application using a library Record class.
+     */
+    static class ResolvedTypesCache {
+        static final int DEFAULT_MAX_SIZE = 256;
+
+        // Statistics are shared by all caches, and therefore by all factories and Gson instances
+        private static final BoundedCache.Counters COUNTERS = new BoundedCache.Counters();
+
+        private final Type[] componentTypes;
+        private final boolean isGeneric;
+        /** Class loader of the Record class and its ancestors; {@code null} represents the bootstrap class loader */
+        private final Set<ClassLoader> cacheableClassLoaders;
+        private final BoundedCache<TypeToken<?>, Type[]> resolvedTypes;
+
+        /**
+         * @param recordType
+         *      the Record class
+         * @param componentTypes
+         *      the generic types of the components, as declared by the Record class
+         * @param maxSize
+         *      the maximum number of entries
+         */
+        ResolvedTypesCache(Class<?> recordType, Type[] componentTypes, int maxSize) {
+            this.componentTypes = componentTypes;
+            this.isGeneric = recordType.getTypeParameters().length > 0;
+            this.resolvedTypes = new BoundedCache<>(maxSize, COUNTERS);
+
+            cacheableClassLoaders = new HashSet<>();
+            // Bootstrap class loader is the ancestor of all class loaders
+            cacheableClassLoaders.add(null);
+            for (ClassLoader loader = recordType.getClassLoader(); loader != null; loader = loader.getParent()) {
+                cacheableClassLoaders.add(loader);
+            }
+        }
+
+        /**
+         * Checks whether all classes the type refers to are loaded by one of the {@link #cacheableClassLoaders}.
+         */
+        private boolean isCacheable(Type type) {
+            if (type instanceof Class<?> c) {
+                return cacheableClassLoaders.contains(c.getClassLoader());
+            } else if (type instanceof ParameterizedType parameterizedType) {
+                Type ownerType = parameterizedType.getOwnerType();
+                return (ownerType == null || isCacheable(ownerType))
+                    && isCacheable(parameterizedType.getRawType())
+                    && Arrays.stream(parameterizedType.getActualTypeArguments()).allMatch(this::isCacheable);
+            } else if (type instanceof GenericArrayType arrayType) {
+                return isCacheable(arrayType.getGenericComponentType());
+            } else if (type instanceof WildcardType wildcardType) {
+                return Arrays.stream(wildcardType.getUpperBounds()).allMatch(this::isCacheable)
+                    && Arrays.stream(wildcardType.getLowerBounds()).allMatch(this::isCacheable);
+            } else if (type instanceof TypeVariable<?> typeVariable) {
+                // Don't check bounds, they might refer to the type variable itself; the bounds are
+                // loaded by the class loader of the declaring class or its ancestors
+                GenericDeclaration declaration = typeVariable.getGenericDeclaration();
+                Class<?> declaringClass = declaration instanceof Class<?> c ? c : ((Executable) declaration).getDeclaringClass();
+                return isCacheable(declaringClass);
+            }
+            // Unknown Type implementation
+            return false;
+        }
+
+        /**
+         * Returns the resolved component types for the Record type; same as {@link #resolveComponentTypes(TypeToken, Type[])}.
+         * The returned array is shared and must not be modified.
+         */
+        Type[] resolve(TypeToken<?> recordContext) {
+            // For non-generic Record classes there is nothing to resolve
+            if (!isGeneric) {
+                return componentTypes;
+            }
+
+            Type[] types = resolvedTypes.get(recordContext);
+            if (types != null) {
+                return types;
+            }
+
+            types = resolveComponentTypes(recordContext, componentTypes);
+            if (!isCacheable(recordContext.getType())) {
+                return types;
+            }
+            Type[] existingTypes = resolvedTypes.putIfAbsent(recordContext, types);
+            // Another thread might have resolved the types in the meantime
+            return existingTypes == null ? types : existingTypes;
+        }
+
+        int size() {
+            return resolvedTypes.size();
+        }
+
+        static CacheStatistics getStatistics() {
+            return COUNTERS.getStatistics();
+        }
+    }
+
     // Package-private for testing
     static class GenericArrayTypeImpl implements GenericArrayType {
         private final Type componentType;
@@ -0,0 +1,221 @@
+package marcono1234.gson.recordadapter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.Optional;
+
+/**
+ * Java Flight Recorder (JFR) events emitted by this library. All events are disabled by default
+ * and have to be enabled explicitly, for example with a custom JFR settings file:
+ * <pre>{@code
+ * <event name="marcono1234.gson.recordadapter.AdapterCreation">
+ *   <setting name="enabled">true</setting>
+ * </event>
+ * }</pre>
+ *
+ * <p>The read and write events support JFR's {@code threshold} setting, which can be used to only
+ * record slow (de-)serializations and thereby to reduce the recording overhead.
+ *
+ * <p>The {@code jdk.jfr} module is optional; if it is not present in the boot layer at runtime, no
+ * events are emitted. For modular applications it might therefore be necessary to add it explicitly
+ * with {@code --add-modules jdk.jfr}. To avoid linkage errors when the module is absent, other classes
+ * only interact with the events through the static methods of this class, which accept and return
+ * events as {@code Object}.
+ */
+final class JfrEvents {
+    private JfrEvents() { }
+
+    private static final boolean IS_AVAILABLE = initialize();
+
+    private static boolean initialize() {
+        Optional<Module> jfrModule = ModuleLayer.boot().findModule("jdk.jfr");
+        if (jfrModule.isEmpty()) {
+            return false;
+        }
+        // Module only has a `requires static` on jdk.jfr, so it does not necessarily read it yet
+        JfrEvents.class.getModule().addReads(jfrModule.get());
+        return true;
+    }
+
+    /**
+     * Begins an adapter creation event.
+     *
+     * @return
+     *      the event, or {@code null} if the event is disabled
+     */
+    static Object beginAdapterCreation() {
+        return IS_AVAILABLE ? EventSupport.beginAdapterCreation() : null;
+    }
+
+    static void commitAdapterCreation(Object event, Class<?> recordType, int componentsCount, String jsonAdapterCreators) {
+        EventSupport.commitAdapterCreation(event, recordType, componentsCount, jsonAdapterCreators);
+    }
+
+    /**
+     * Begins a Record read event.
+     *
+     * @return
+     *      the event, or {@code null} if the event is disabled
+     */
+    static Object beginRead() {
+        return IS_AVAILABLE ? EventSupport.beginRead() : null;
+    }
+
+    static void commitRead(Object event, Class<?> recordType, int propertiesCount) {
+        EventSupport.commitRead(event, recordType, propertiesCount);
+    }
+
+    /**
+     * Begins a Record write event.
+     *
+     * @return
+     *      the event, or {@code null} if the event is disabled
+     */
+    static Object beginWrite() {
+        return IS_AVAILABLE ? EventSupport.beginWrite() : null;
+    }
+
+    static void commitWrite(Object event, Class<?> recordType, int propertiesCount) {
+        EventSupport.commitWrite(event, recordType, propertiesCount);
+    }
+
+    /**
+     * Class directly referencing the JFR API; only loaded if JFR is available.
+     */
+    private static class EventSupport {
+        /**
+         * Holder of the event types, only initialized once JFR has been initialized. Looking up the event
+         * types registers the events, which would otherwise start the JFR event machinery even if no
+         * recording is ever started.
+         */
+        private static class EventTypes {
+            // Checking the EventType is cheaper than creating an event instance only to check if it is enabled
+            static final EventType ADAPTER_CREATION = EventType.getEventType(AdapterCreationEvent.class);
+            static final EventType READ = EventType.getEventType(RecordReadEvent.class);
+            static final EventType WRITE = EventType.getEventType(RecordWriteEvent.class);
+        }
+
+        static Object beginAdapterCreation() {
+            // If JFR has not been initialized yet no recording is running, and all events are disabled
+            if (!FlightRecorder.isInitialized() || !EventTypes.ADAPTER_CREATION.isEnabled()) {
+                return null;
+            }
+            AdapterCreationEvent event = new AdapterCreationEvent();
+            event.begin();
+            return event;
+        }
+
+        static void commitAdapterCreation(Object eventObj, Class<?> recordType, int componentsCount, String jsonAdapterCreators) {
+            AdapterCreationEvent event = (AdapterCreationEvent) eventObj;
+            event.end();
+            if (event.shouldCommit()) {
+                event.recordType = recordType;
+                event.componentsCount = componentsCount;
+                event.jsonAdapterCreators = jsonAdapterCreators;
+                event.commit();
+            }
+        }
+
+        static Object beginRead() {
+            if (!FlightRecorder.isInitialized() || !EventTypes.READ.isEnabled()) {
+                return null;
+            }
+            RecordReadEvent event = new RecordReadEvent();
+            event.begin();
+            return event;
+        }
+
+        static void commitRead(Object eventObj, Class<?> recordType, int propertiesCount) {
+            RecordReadEvent event = (RecordReadEvent) eventObj;
+            event.end();
+            if (event.shouldCommit()) {
+                event.recordType = recordType;
+                event.propertiesCount = propertiesCount;
+                event.commit();
+            }
+        }
+
+        static Object beginWrite() {
+            if (!FlightRecorder.isInitialized() || !EventTypes.WRITE.isEnabled()) {
+                return null;
+            }
+            RecordWriteEvent event = new RecordWriteEvent();
+            event.begin();
+            return event;
+        }
+
+        static void commitWrite(Object eventObj, Class<?> recordType, int propertiesCount) {
+            RecordWriteEvent event = (RecordWriteEvent) eventObj;
+            event.end();
+            if (event.shouldCommit()) {
+                event.recordType = recordType;
+                event.propertiesCount = propertiesCount;
+                event.commit();
+            }
+        }
+    }
+
+    @Name(AdapterCreationEvent.NAME)
+    @Label("Record Adapter Creation")
+    @Description("Creation of a type adapter for a Record class")
+    @Category({"Gson", "Record Type Adapter"})
+    @Enabled(false)
+    static class AdapterCreationEvent extends Event {
+        static final String NAME = "marcono1234.gson.recordadapter.AdapterCreation";
+
+        @Label("Record Type")
+        Class<?> recordType;
+
+        @Label("Components Count")
+        int componentsCount;
+
+        @Label("JSON Adapter Creators")
+        @Description("JsonAdapterCreators used for @JsonAdapter annotations of components, if any")
+        String jsonAdapterCreators;
+    }
+
+    @Name(RecordReadEvent.NAME)
+    @Label("Record Read")
+    @Description("Deserialization of a Record instance, or of all Records of a list or array in columnar encoding")
+    @Category({"Gson", "Record Type Adapter"})
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static class RecordReadEvent extends Event {
+        static final String NAME = "marcono1234.gson.recordadapter.Read";
+
+        @Label("Record Type")
+        Class<?> recordType;
+
+        @Label("Properties Count")
+        @Description("Number of JSON properties read, including unknown and skipped ones")
+        int propertiesCount;
+    }
+
+    @Name(RecordWriteEvent.NAME)
+    @Label("Record Write")
+    @Description("Serialization of a Record instance, or of all Records of a list or array in columnar encoding")
+    @Category({"Gson", "Record Type Adapter"})
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static class RecordWriteEvent extends Event {
+        static final String NAME = "marcono1234.gson.recordadapter.Write";
+
+        @Label("Record Type")
+        Class<?> recordType;
+
+        @Label("Properties Count")
+        @Description("Number of JSON properties written")
+        int propertiesCount;
+    }
+}
@@ -0,0 +1,169 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader for <a href="https://jsonlines.org/">JSON Lines</a> (also called newline-delimited JSON) data, where
+ * every line contains one JSON value of the same type, for example a Record:
+ * <pre>{@code
+ * try (JsonLinesReader<MyRecord> reader = new JsonLinesReader<>(gson, MyRecord.class, fileReader)) {
+ *     reader.stream().forEach(...);
+ * }
+ * }</pre>
+ *
+ * <p>The type adapter for the value type is obtained from the {@code Gson} instance only once, and a single
+ * {@link JsonReader} is used for all values. The values are read lazily, so arbitrarily large data can be
+ * processed with constant memory usage. Like {@link Gson#fromJson(JsonReader, Type) Gson.fromJson}, the data is
+ * parsed in {@linkplain JsonReader#setLenient(boolean) lenient} mode. This reader does not enforce that values
+ * are separated by line breaks; any whitespace between the values is accepted.
+ *
+ * <p>Parsing errors are thrown as {@link JsonSyntaxException}, and I/O errors of the underlying {@code Reader}
+ * as {@link JsonIOException}. Instances of this class are not thread-safe.
+ *
+ * @param <T>
+ *      type of the values
+ * @see JsonLinesWriter
+ */
+public class JsonLinesReader<T> implements Iterator<T>, Closeable {
+    private final JsonReader in;
+    private final TypeAdapter<T> adapter;
+
+    /**
+     * Creates a JSON Lines reader for values of the given type.
+     *
+     * @param gson
+     *      Gson instance providing the type adapter for the values
+     * @param type
+     *      type of the values
+     * @param reader
+     *      reader providing the JSON Lines data; it is recommended to use a buffered reader
+     */
+    public JsonLinesReader(Gson gson, TypeToken<T> type, Reader reader) {
+        this(gson.getAdapter(type), reader);
+    }
+
+    /**
+     * Creates a JSON Lines reader for values of the given type.
+     *
+     * @param gson
+     *      Gson instance providing the type adapter for the values
+     * @param type
+     *      type of the values
+     * @param reader
+     *      reader providing the JSON Lines data; it is recommended to use a buffered reader
+     */
+    public JsonLinesReader(Gson gson, Class<T> type, Reader reader) {
+        this(gson, TypeToken.get(type), reader);
+    }
+
+    /**
+     * Creates a JSON Lines reader using the given type adapter, which has already been obtained from
+     * a {@code Gson} instance.
+     */
+    JsonLinesReader(TypeAdapter<T> adapter, Reader reader) {
+        this.adapter = adapter;
+        in = new JsonReader(reader);
+        // Lenient mode is required to allow multiple top-level values; Gson.fromJson uses lenient mode as well
+        in.setLenient(true);
+    }
+
+    private static RuntimeException wrapException(IOException e) {
+        // EOFException is thrown for incomplete values
+        if (e instanceof MalformedJsonException || e instanceof EOFException) {
+            return new JsonSyntaxException(e);
+        }
+        return new JsonIOException(e);
+    }
+
+    /**
+     * Returns whether the data contains another value.
+     *
+     * @throws JsonSyntaxException
+     *      If the data is malformed
+     * @throws JsonIOException
+     *      If reading from the underlying reader fails
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            return in.peek() != JsonToken.END_DOCUMENT;
+        } catch (EOFException e) {
+            // JsonReader throws EOFException instead of returning END_DOCUMENT for empty data
+            return false;
+        } catch (IOException e) {
+            throw wrapException(e);
+        }
+    }
+
+    /**
+     * Reads the next value. The value is {@code null} if the data contains a JSON null and the type
+     * adapter reads it as {@code null}.
+     *
+     * @throws NoSuchElementException
+     *      If there is no next value
+     * @throws JsonSyntaxException
+     *      If the data is malformed or does not match the value type
+     * @throws JsonIOException
+     *      If reading from the underlying reader fails
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return adapter.read(in);
+        } catch (IllegalStateException e) {
+            // Thrown by JsonReader for unexpected tokens
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw wrapException(e);
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the remaining values. The values are read lazily, and the stream can
+     * only be consumed once. Closing the stream closes this reader.
+     *
+     * @return
+     *      a stream of the remaining values
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+            .onClose(() -> {
+                try {
+                    close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    /**
+     * Closes this reader and the underlying {@code Reader}.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
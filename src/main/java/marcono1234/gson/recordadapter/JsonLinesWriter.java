@@ -0,0 +1,103 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer for <a href="https://jsonlines.org/">JSON Lines</a> (also called newline-delimited JSON) data, which
+ * writes every value as compact JSON on a separate line:
+ * <pre>{@code
+ * try (JsonLinesWriter<MyRecord> writer = new JsonLinesWriter<>(gson, MyRecord.class, fileWriter)) {
+ *     for (MyRecord r : records) {
+ *         writer.write(r);
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>The type adapter for the value type is obtained from the {@code Gson} instance only once, and a single
+ * {@link CompactJsonWriter} is used for all values. The {@linkplain Gson#htmlSafe() HTML-safe} and
+ * {@linkplain Gson#serializeNulls() serialize nulls} settings of the {@code Gson} instance are respected,
+ * pretty printing is not supported since every value has to be on a single line.
+ *
+ * <p>Instances of this class are not thread-safe.
+ *
+ * @param <T>
+ *      type of the values
+ * @see JsonLinesReader
+ */
+public class JsonLinesWriter<T> implements Flushable, Closeable {
+    private final Writer writer;
+    private final JsonWriter out;
+    private final TypeAdapter<T> adapter;
+
+    /**
+     * Creates a JSON Lines writer for values of the given type.
+     *
+     * @param gson
+     *      Gson instance providing the type adapter for the values
+     * @param type
+     *      type of the values
+     * @param writer
+     *      writer to which the JSON Lines data is written; it is recommended to use a buffered writer
+     */
+    public JsonLinesWriter(Gson gson, TypeToken<T> type, Writer writer) {
+        adapter = gson.getAdapter(type);
+        this.writer = writer;
+        out = new CompactJsonWriter(writer);
+        // Lenient mode is required to allow multiple top-level values; Gson.toJson uses lenient mode as well
+        out.setLenient(true);
+        out.setHtmlSafe(gson.htmlSafe());
+        out.setSerializeNulls(gson.serializeNulls());
+    }
+
+    /**
+     * Creates a JSON Lines writer for values of the given type.
+     *
+     * @param gson
+     *      Gson instance providing the type adapter for the values
+     * @param type
+     *      type of the values
+     * @param writer
+     *      writer to which the JSON Lines data is written; it is recommended to use a buffered writer
+     */
+    public JsonLinesWriter(Gson gson, Class<T> type, Writer writer) {
+        this(gson, TypeToken.get(type), writer);
+    }
+
+    /**
+     * Writes a value, followed by a line break ({@code \n}).
+     *
+     * @param value
+     *      value to write
+     * @throws IOException
+     *      If writing to the underlying writer fails
+     */
+    public void write(T value) throws IOException {
+        adapter.write(out, value);
+        writer.write('\n');
+    }
+
+    /**
+     * Flushes the underlying {@code Writer}.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the underlying {@code Writer}.
+     */
+    @Override
+    public void close() throws IOException {
+        // Don't call out.close() because JsonWriter considers an empty document incomplete
+        writer.close();
+    }
+}
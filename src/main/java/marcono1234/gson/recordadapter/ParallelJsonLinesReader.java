@@ -0,0 +1,291 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Reader for <a href="https://jsonlines.org/">JSON Lines</a> data which decodes the values concurrently
+ * using multiple threads. This can be used to speed up reading large amounts of JSON Lines data, for which
+ * the decoding is usually the bottleneck.
+ *
+ * <p>The data is read by the calling thread and split into chunks of complete lines. The chunks are then
+ * decoded concurrently by tasks submitted to an {@link Executor}, for example a thread pool with one thread
+ * per CPU core. The decoded values are passed to a {@code Consumer} which is always called by the thread which
+ * started reading, so the consumer does not have to be thread-safe. The values can either be provided in the
+ * order in which they appear in the data ({@link #readOrdered(Reader, Consumer)}) or in the order in which the
+ * chunks have been decoded ({@link #readUnordered(Reader, Consumer)}); the latter can have a higher throughput.
+ *
+ * <p>To limit the memory usage, at most {@code maxPendingChunks} chunks are decoded or waiting to be passed to
+ * the consumer at the same time. When that limit is reached, reading the data is paused until the consumer has
+ * processed the values of a chunk.
+ *
+ * <p>Values are split at line breaks, therefore every value must be on a single line, as required by the
+ * JSON Lines format. Apart from that the data is parsed like by {@link JsonLinesReader}; however, the JSON path
+ * and line number in exception messages are relative to the start of the chunk. If decoding a chunk fails, none
+ * of its values are passed to the consumer, and decoding of the remaining chunks is cancelled.
+ *
+ * <p>Instances of this class are thread-safe, and can be used to read multiple inputs concurrently.
+ *
+ * @param <T>
+ *      type of the values
+ * @see JsonLinesReader
+ */
+public class ParallelJsonLinesReader<T> {
+    /** Default size of a chunk, in characters */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final TypeAdapter<T> adapter;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+
+    /**
+     * Creates a parallel JSON Lines reader for values of the given type.
+     *
+     * @param gson
+     *      Gson instance providing the type adapter for the values
+     * @param type
+     *      type of the values
+     * @param executor
+     *      executor to which the decoding of the chunks is submitted
+     * @param chunkSize
+     *      maximum size of a chunk, in characters; a chunk is only larger if it consists of a single line
+     *      which is longer than the chunk size
+     * @param maxPendingChunks
+     *      maximum number of chunks which are decoded or waiting to be passed to the consumer at the same time
+     * @throws IllegalArgumentException
+     *      If {@code chunkSize} or {@code maxPendingChunks} is &lt; 1
+     */
+    public ParallelJsonLinesReader(Gson gson, TypeToken<T> type, Executor executor, int chunkSize, int maxPendingChunks) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        if (maxPendingChunks < 1) {
+            throw new IllegalArgumentException("Invalid max pending chunks: " + maxPendingChunks);
+        }
+        this.adapter = gson.getAdapter(type);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    /**
+     * Creates a parallel JSON Lines reader for values of the given type, using {@link #DEFAULT_CHUNK_SIZE}
+     * and allowing twice as many pending chunks as there are processors available.
+     *
+     * @param gson
+     *      Gson instance providing the type adapter for the values
+     * @param type
+     *      type of the values
+     * @param executor
+     *      executor to which the decoding of the chunks is submitted
+     */
+    public ParallelJsonLinesReader(Gson gson, Class<T> type, Executor executor) {
+        this(gson, TypeToken.get(type), executor, DEFAULT_CHUNK_SIZE, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads all values and passes them to the consumer in the order in which they appear in the data.
+     * The underlying {@code Reader} is not closed.
+     *
+     * @param reader
+     *      reader providing the JSON Lines data
+     * @param consumer
+     *      consumer of the values; called by the current thread
+     * @throws IOException
+     *      If reading from the reader fails
+     * @throws InterruptedException
+     *      If the current thread is interrupted while waiting for the decoding of a chunk
+     * @throws JsonSyntaxException
+     *      If the data is malformed or does not match the value type
+     */
+    public void readOrdered(Reader reader, Consumer<? super T> consumer) throws IOException, InterruptedException {
+        Deque<Future<List<T>>> pending = new ArrayDeque<>();
+        try {
+            splitChunks(reader, chunk -> {
+                if (pending.size() >= maxPendingChunks) {
+                    deliver(pending.removeFirst(), consumer);
+                }
+                FutureTask<List<T>> task = new FutureTask<>(createDecodeTask(chunk));
+                executor.execute(task);
+                pending.addLast(task);
+            });
+
+            while (!pending.isEmpty()) {
+                deliver(pending.removeFirst(), consumer);
+            }
+        } finally {
+            // Only has an effect if an exception occurred
+            cancelAll(pending);
+        }
+    }
+
+    /**
+     * Reads all values and passes them to the consumer in the order in which the chunks have been decoded.
+     * Values of the same chunk are passed in the order in which they appear in the data. The underlying
+     * {@code Reader} is not closed.
+     *
+     * @param reader
+     *      reader providing the JSON Lines data
+     * @param consumer
+     *      consumer of the values; called by the current thread
+     * @throws IOException
+     *      If reading from the reader fails
+     * @throws InterruptedException
+     *      If the current thread is interrupted while waiting for the decoding of a chunk
+     * @throws JsonSyntaxException
+     *      If the data is malformed or does not match the value type
+     */
+    public void readUnordered(Reader reader, Consumer<? super T> consumer) throws IOException, InterruptedException {
+        CompletionService<List<T>> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<List<T>>> pending = new ArrayList<>();
+        try {
+            splitChunks(reader, chunk -> {
+                // Deliver all values which are already available, to keep the number of pending chunks low
+                Future<List<T>> completed;
+                while ((completed = completionService.poll()) != null) {
+                    pending.remove(completed);
+                    deliver(completed, consumer);
+                }
+                if (pending.size() >= maxPendingChunks) {
+                    completed = completionService.take();
+                    pending.remove(completed);
+                    deliver(completed, consumer);
+                }
+                pending.add(completionService.submit(createDecodeTask(chunk)));
+            });
+
+            while (!pending.isEmpty()) {
+                Future<List<T>> completed = completionService.take();
+                pending.remove(completed);
+                deliver(completed, consumer);
+            }
+        } finally {
+            // Only has an effect if an exception occurred
+            cancelAll(pending);
+        }
+    }
+
+    interface ChunkConsumer {
+        void accept(String chunk) throws InterruptedException;
+    }
+
+    private void splitChunks(Reader reader, ChunkConsumer chunkConsumer) throws IOException, InterruptedException {
+        splitChunks(reader, chunkSize, chunkConsumer);
+    }
+
+    /**
+     * Splits the data into chunks which only contain complete lines. Chunks are at most {@code chunkSize}
+     * characters long, unless they consist of a single line which is longer than that.
+     */
+    // Package-private for testing
+    static void splitChunks(Reader reader, int chunkSize, ChunkConsumer chunkConsumer) throws IOException, InterruptedException {
+        char[] buffer = new char[chunkSize];
+        int length = 0;
+        // Index from which to search for the end of a line which is longer than the chunk size
+        int lineEndSearchStart = 0;
+        while (true) {
+            int read = reader.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                if (length > 0) {
+                    chunkConsumer.accept(new String(buffer, 0, length));
+                }
+                return;
+            }
+            length += read;
+
+            int chunkStart = 0;
+            while (length - chunkStart >= chunkSize) {
+                int chunkEnd = chunkStart + chunkSize;
+                // Find end of last complete line within chunk size
+                while (chunkEnd > chunkStart && buffer[chunkEnd - 1] != '\n') {
+                    chunkEnd--;
+                }
+                if (chunkEnd == chunkStart) {
+                    // Line is longer than chunk size; emit it as soon as its end has been found
+                    chunkEnd = Math.max(chunkStart + chunkSize, lineEndSearchStart);
+                    while (chunkEnd < length && buffer[chunkEnd] != '\n') {
+                        chunkEnd++;
+                    }
+                    if (chunkEnd == length) {
+                        // End of line has not been read yet
+                        lineEndSearchStart = chunkEnd;
+                        break;
+                    }
+                    // Include the line break
+                    chunkEnd++;
+                }
+
+                chunkConsumer.accept(new String(buffer, chunkStart, chunkEnd - chunkStart));
+                chunkStart = chunkEnd;
+                lineEndSearchStart = 0;
+            }
+
+            length -= chunkStart;
+            lineEndSearchStart = Math.max(0, lineEndSearchStart - chunkStart);
+            if (length == buffer.length) {
+                // Line is longer than buffer
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            } else {
+                char[] newBuffer = buffer;
+                if (buffer.length > chunkSize && length < chunkSize) {
+                    // Go back to configured size after a line which was longer than the chunk size
+                    newBuffer = new char[chunkSize];
+                }
+                System.arraycopy(buffer, chunkStart, newBuffer, 0, length);
+                buffer = newBuffer;
+            }
+        }
+    }
+
+    private Callable<List<T>> createDecodeTask(String chunk) {
+        return () -> {
+            List<T> values = new ArrayList<>();
+            new JsonLinesReader<>(adapter, new StringReader(chunk)).forEachRemaining(values::add);
+            return values;
+        };
+    }
+
+    private void deliver(Future<List<T>> future, Consumer<? super T> consumer) throws InterruptedException {
+        List<T> values;
+        try {
+            values = future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            // Should not happen because decode task does not throw checked exceptions
+            throw new JsonIOException("Failed decoding chunk", cause);
+        }
+        values.forEach(consumer);
+    }
+
+    private static void cancelAll(Iterable<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+}
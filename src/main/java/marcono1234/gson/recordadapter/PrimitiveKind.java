@@ -0,0 +1,270 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.RoundingMode;
+
+/**
+ * Internal enum for reading and writing primitive Record component values without boxing them, for
+ * components which use Gson's built-in type adapter.
+ *
+ * <p>Values are stored in a {@code long} slot: integral values are stored as is, {@code boolean} values
+ * as {@code 0} or {@code 1}, and floating point values as their raw bits.
+ */
+enum PrimitiveKind {
+    INT(int.class, false) {
+        @Override
+        long read(JsonReader in) throws IOException {
+            // Matches behavior of com.google.gson.internal.bind.TypeAdapters.INTEGER
+            try {
+                return in.nextInt();
+            } catch (NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        void write(JsonWriter out, long value) throws IOException {
+            out.value(value);
+        }
+    },
+    LONG(long.class, false) {
+        @Override
+        long read(JsonReader in) throws IOException {
+            // Matches behavior of com.google.gson.internal.bind.TypeAdapters.LONG
+            try {
+                return in.nextLong();
+            } catch (NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+        }
+
+        @Override
+        void write(JsonWriter out, long value) throws IOException {
+            out.value(value);
+        }
+    },
+    /** Float adapter of Gson when special floating point values are disallowed (the default) */
+    FLOAT(float.class, false) {
+        @Override
+        long read(JsonReader in) throws IOException {
+            return readFloat(in);
+        }
+
+        @Override
+        void write(JsonWriter out, long value) throws IOException {
+            float floatValue = Float.intBitsToFloat((int) value);
+            checkValidFloatingPoint(floatValue);
+            // Must not write as double, that would produce different output
+            out.value(floatValue);
+        }
+    },
+    /** Float adapter of Gson when special floating point values are allowed */
+    FLOAT_ALLOW_SPECIAL(float.class, true) {
+        @Override
+        long read(JsonReader in) throws IOException {
+            return readFloat(in);
+        }
+
+        @Override
+        void write(JsonWriter out, long value) throws IOException {
+            // Must not write as double, that would produce different output
+            out.value(Float.intBitsToFloat((int) value));
+        }
+    },
+    /** Double adapter of Gson when special floating point values are disallowed (the default) */
+    DOUBLE(double.class, false) {
+        @Override
+        long read(JsonReader in) throws IOException {
+            return readDouble(in);
+        }
+
+        @Override
+        void write(JsonWriter out, long value) throws IOException {
+            double doubleValue = Double.longBitsToDouble(value);
+            checkValidFloatingPoint(doubleValue);
+            out.value(doubleValue);
+        }
+    },
+    /** Double adapter of Gson when special floating point values are allowed */
+    DOUBLE_ALLOW_SPECIAL(double.class, true) {
+        @Override
+        long read(JsonReader in) throws IOException {
+            return readDouble(in);
+        }
+
+        @Override
+        void write(JsonWriter out, long value) throws IOException {
+            out.value(Double.longBitsToDouble(value));
+        }
+    },
+    BOOLEAN(boolean.class, false) {
+        @Override
+        long read(JsonReader in) throws IOException {
+            // Matches behavior of com.google.gson.internal.bind.TypeAdapters.BOOLEAN
+            boolean value;
+            if (in.peek() == JsonToken.STRING) {
+                // Gson is lenient and also supports boolean values as string
+                value = Boolean.parseBoolean(in.nextString());
+            } else {
+                value = in.nextBoolean();
+            }
+            return value ? 1 : 0;
+        }
+
+        @Override
+        void write(JsonWriter out, long value) throws IOException {
+            out.value(value != 0);
+        }
+    };
+
+    // Matches behavior of Gson's float adapters
+    private static long readFloat(JsonReader in) throws IOException {
+        return Float.floatToRawIntBits((float) in.nextDouble());
+    }
+
+    // Matches behavior of Gson's double adapters
+    private static long readDouble(JsonReader in) throws IOException {
+        return Double.doubleToRawLongBits(in.nextDouble());
+    }
+
+    // Matches behavior of com.google.gson.Gson.checkValidFloatingPoint
+    private static void checkValidFloatingPoint(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a valid double value as per JSON specification. To override this behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.");
+        }
+    }
+
+    // Gson instances whose built-in adapters are used to detect whether a component uses a built-in adapter;
+    // Gson uses different adapters for floating point types depending on whether special values are allowed
+    private static final Gson DEFAULT_GSON = new Gson();
+    private static final Gson SPECIAL_FLOATING_POINT_GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    private final Class<?> type;
+    private final boolean allowsSpecialFloatingPointValues;
+    /** Handle of type {@code (long)P} converting the slot value to the primitive type {@code P} */
+    private final MethodHandle fromSlot;
+    /** Handle of type {@code (P)long} converting a value of the primitive type {@code P} to a slot value */
+    private final MethodHandle toSlot;
+
+    PrimitiveKind(Class<?> type, boolean allowsSpecialFloatingPointValues) {
+        this.type = type;
+        this.allowsSpecialFloatingPointValues = allowsSpecialFloatingPointValues;
+
+        MethodHandle fromBits;
+        MethodHandle toBits;
+        Class<?> bitsType;
+        try {
+            if (type == float.class) {
+                fromBits = MethodHandles.publicLookup().findStatic(Float.class, "intBitsToFloat", MethodType.methodType(float.class, int.class));
+                toBits = MethodHandles.publicLookup().findStatic(Float.class, "floatToRawIntBits", MethodType.methodType(int.class, float.class));
+                bitsType = int.class;
+            } else if (type == double.class) {
+                fromBits = MethodHandles.publicLookup().findStatic(Double.class, "longBitsToDouble", MethodType.methodType(double.class, long.class));
+                toBits = MethodHandles.publicLookup().findStatic(Double.class, "doubleToRawLongBits", MethodType.methodType(long.class, double.class));
+                bitsType = long.class;
+            } else {
+                fromBits = null;
+                toBits = null;
+                bitsType = type;
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new AssertionError("Unexpected: Failed finding conversion method for " + type, e);
+        }
+
+        // Performs primitive conversion, and for boolean uses 1 and 0 respectively tests the lowest bit
+        MethodHandle slotToBits = MethodHandles.explicitCastArguments(MethodHandles.identity(long.class), MethodType.methodType(bitsType, long.class));
+        MethodHandle bitsToSlot = MethodHandles.explicitCastArguments(MethodHandles.identity(bitsType), MethodType.methodType(long.class, bitsType));
+        if (fromBits == null) {
+            fromSlot = slotToBits;
+            toSlot = bitsToSlot;
+        } else {
+            fromSlot = MethodHandles.filterReturnValue(slotToBits, fromBits);
+            toSlot = MethodHandles.filterReturnValue(toBits, bitsToSlot);
+        }
+    }
+
+    /**
+     * Gets the handle of type {@code (long)P} which converts the slot value to the primitive type {@code P}.
+     */
+    MethodHandle fromSlot() {
+        return fromSlot;
+    }
+
+    /**
+     * Gets the handle of type {@code (P)long} which converts a value of the primitive type {@code P} to a
+     * slot value.
+     */
+    MethodHandle toSlot() {
+        return toSlot;
+    }
+
+    /**
+     * Reads a non-null value and returns it as slot value. The behavior matches the one of the built-in
+     * Gson adapter for the primitive type.
+     */
+    abstract long read(JsonReader in) throws IOException;
+
+    /**
+     * Writes the given slot value. The behavior matches the one of the built-in Gson adapter for the
+     * primitive type.
+     */
+    abstract void write(JsonWriter out, long value) throws IOException;
+
+    /**
+     * Gets the kind for the given component type if the adapter is the built-in Gson adapter for it;
+     * otherwise returns {@code null}.
+     */
+    static PrimitiveKind forBuiltInAdapter(Class<?> componentType, TypeAdapter<?> adapter) {
+        for (PrimitiveKind kind : values()) {
+            if (kind.type == componentType) {
+                Gson referenceGson = kind.allowsSpecialFloatingPointValues ? SPECIAL_FLOATING_POINT_GSON : DEFAULT_GSON;
+                // Compare classes instead of instances because some built-in adapters are created per Gson instance
+                if (isSameAdapterClass(adapter, referenceGson.getAdapter(componentType))) {
+                    return kind;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the adapter is the built-in Gson adapter for the given type, regardless of whether
+     * special floating point values are allowed. Must only be called for JDK types; the static Gson
+     * instances cache the adapters and would otherwise prevent unloading of application classes.
+     */
+    static boolean isBuiltInAdapter(TypeAdapter<?> adapter, Class<?> type) {
+        assert type.getClassLoader() == null : "Not a JDK type: " + type;
+        return isSameAdapterClass(adapter, DEFAULT_GSON.getAdapter(type))
+            || isSameAdapterClass(adapter, SPECIAL_FLOATING_POINT_GSON.getAdapter(type));
+    }
+
+    // Lazily initialized holder, only needed by RecordBinaryCodec
+    private static class BuiltInEnumAdapter {
+        // Uses public JDK enum instead of the application enum class to not keep a reference to the application
+        // class in the static Gson instance, and instead of an enum of this library because its package is not
+        // opened to Gson; Gson uses the same adapter class for all enums
+        static final Class<?> ADAPTER_CLASS = DEFAULT_GSON.getAdapter(RoundingMode.class).getClass();
+    }
+
+    /**
+     * Checks whether the adapter is the built-in Gson adapter for enum classes.
+     */
+    static boolean isBuiltInEnumAdapter(TypeAdapter<?> adapter) {
+        return adapter.getClass() == BuiltInEnumAdapter.ADAPTER_CLASS;
+    }
+
+    private static boolean isSameAdapterClass(TypeAdapter<?> adapter, TypeAdapter<?> builtInAdapter) {
+        return adapter.getClass() == builtInAdapter.getClass();
+    }
+}
@@ -0,0 +1,119 @@
+package marcono1234.gson.recordadapter;
+
+import java.util.Map;
+
+/**
+ * Immutable lookup table mapping JSON property names to component indices.
+ *
+ * <p>The set of property names of a Record class is fixed, so the table tries to find a size for
+ * which a cheap hash, which only considers the length as well as the first and last char of the name,
+ * is collision-free. In that case a lookup consists of computing that hash and at most one
+ * {@link String#equals(Object)} call. Only if no such size exists, {@link String#hashCode()} with
+ * linear probing is used instead.
+ */
+final class PropertyNameLookup {
+    /** Result of {@link #get(String)} for an unknown name */
+    static final int NOT_FOUND = -1;
+
+    /**
+     * Maximum factor by which the table size may exceed the number of names when searching for
+     * a collision-free size for the cheap hash
+     */
+    private static final int MAX_SIZE_FACTOR = 8;
+
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+    /** Whether {@link #cheapHash(String)} is collision-free; otherwise linear probing is used */
+    private final boolean isPerfect;
+
+    private PropertyNameLookup(String[] keys, int[] values, boolean isPerfect) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.isPerfect = isPerfect;
+    }
+
+    private static int cheapHash(String name) {
+        int length = name.length();
+        if (length == 0) {
+            return 0;
+        }
+        int h = length * 31 + name.charAt(0);
+        h = h * 31 + name.charAt(length - 1);
+        // Spread bits because only the low bits are used as index
+        return h ^ (h >>> 7);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Creates a lookup table for the given mapping from property name to (non-negative)
+     * component index.
+     */
+    static PropertyNameLookup create(Map<String, Integer> nameToIndex) {
+        int namesCount = nameToIndex.size();
+        // Table size is a power of two and at least twice the number of names
+        int minSize = Integer.highestOneBit(Math.max(1, namesCount) * 2 - 1) << 1;
+
+        for (int size = minSize; size <= minSize * MAX_SIZE_FACTOR; size <<= 1) {
+            String[] keys = new String[size];
+            int[] values = new int[size];
+            boolean hasCollision = false;
+            for (Map.Entry<String, Integer> entry : nameToIndex.entrySet()) {
+                int index = cheapHash(entry.getKey()) & (size - 1);
+                if (keys[index] != null) {
+                    hasCollision = true;
+                    break;
+                }
+                keys[index] = entry.getKey();
+                values[index] = entry.getValue();
+            }
+            if (!hasCollision) {
+                return new PropertyNameLookup(keys, values, true);
+            }
+        }
+
+        // Fall back to regular hash code with linear probing
+        String[] keys = new String[minSize];
+        int[] values = new int[minSize];
+        for (Map.Entry<String, Integer> entry : nameToIndex.entrySet()) {
+            int index = spread(entry.getKey().hashCode()) & (minSize - 1);
+            while (keys[index] != null) {
+                index = (index + 1) & (minSize - 1);
+            }
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+        }
+        return new PropertyNameLookup(keys, values, false);
+    }
+
+    /**
+     * Gets the component index for the property name, or {@link #NOT_FOUND} if the name is unknown.
+     */
+    int get(String name) {
+        if (isPerfect) {
+            int index = cheapHash(name) & mask;
+            String key = keys[index];
+            return key != null && key.equals(name) ? values[index] : NOT_FOUND;
+        }
+
+        int index = spread(name.hashCode()) & mask;
+        String key;
+        // Terminates because table size is at least twice the number of names
+        while ((key = keys[index]) != null) {
+            if (key.equals(name)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /** For tests: Whether the cheap collision-free hash is used */
+    boolean isPerfect() {
+        return isPerfect;
+    }
+}
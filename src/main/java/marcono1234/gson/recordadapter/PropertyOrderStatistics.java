@@ -0,0 +1,21 @@
+package marcono1234.gson.recordadapter;
+
+/**
+ * Statistics about the order of JSON properties encountered during deserialization of a Record class.
+ *
+ * <p>During deserialization the type adapters created by {@link RecordTypeAdapterFactory} expect JSON
+ * properties to appear in the same order as the Record components, which is the order used during
+ * serialization. For each property the adapter first checks whether it is the serialization name of the
+ * next expected component; if that is the case it is counted as <i>hit</i>. Otherwise, for example for
+ * properties in different order, alternate names specified by {@link com.google.gson.annotations.SerializedName @SerializedName}
+ * or unknown properties, it is counted as <i>miss</i> and the component is looked up by name.
+ *
+ * @param hits
+ *      number of properties which matched the next expected component
+ * @param misses
+ *      number of properties which did not match the next expected component
+ * @see RecordTypeAdapterFactory.Builder#collectPropertyOrderStatistics()
+ * @see RecordTypeAdapterFactory#getPropertyOrderStatistics(Class)
+ */
+public record PropertyOrderStatistics(long hits, long misses) {
+}
@@ -0,0 +1,97 @@
+package marcono1234.gson.recordadapter;
+
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Listener for metrics about the serialization and deserialization of Record classes, for example
+ * to find out which Record classes dominate the time spent on JSON processing, or which JSON data
+ * contains many unknown properties. All methods have an empty default implementation, so implementations
+ * only have to override the methods for the metrics they are interested in.
+ *
+ * <p>Implementations must be thread-safe, and should return quickly because they are called while
+ * the JSON data is processed. Exceptions thrown by an implementation are propagated to the caller of
+ * the type adapter.
+ *
+ * @see marcono1234.gson.recordadapter.RecordTypeAdapterFactory.Builder#withMetrics(RecordAdapterMetrics)
+ */
+public interface RecordAdapterMetrics {
+    /**
+     * Called after a Record instance has been successfully deserialized.
+     *
+     * @param recordClass
+     *      class of the deserialized Record
+     * @param durationNanos
+     *      time spent deserializing the Record instance, in nanoseconds; includes the time spent
+     *      deserializing the component values. For Records in columnar encoding (see
+     *      {@link RecordTypeAdapterFactory.Builder#useColumnarEncoding(Class)}) the time spent deserializing
+     *      all Records of the list or array, split evenly between them.
+     */
+    default void recordRead(Class<? extends Record> recordClass, long durationNanos) { }
+
+    /**
+     * Called after a Record instance has been successfully serialized.
+     *
+     * @param recordClass
+     *      class of the serialized Record
+     * @param durationNanos
+     *      time spent serializing the Record instance, in nanoseconds; includes the time spent
+     *      serializing the component values. For Records in columnar encoding (see
+     *      {@link RecordTypeAdapterFactory.Builder#useColumnarEncoding(Class)}) the time spent serializing
+     *      all Records of the list or array, split evenly between them.
+     */
+    default void recordWritten(Class<? extends Record> recordClass, long durationNanos) { }
+
+    /**
+     * Called when a JSON property which does not correspond to any Record component is skipped
+     * during deserialization. If Records are represented as JSON arrays (see
+     * {@link RecordTypeAdapterFactory.Builder#useArrayEncoding()}), this method is called for every
+     * additional array element after the elements for the components.
+     *
+     * <p>This method is not called if unknown properties are disallowed, see
+     * {@link RecordTypeAdapterFactory.Builder#disallowUnknownProperties()}; deserialization fails
+     * instead.
+     *
+     * @param recordClass
+     *      class of the Record being deserialized
+     * @param propertyName
+     *      name of the unknown property; for additional array elements the index of the element
+     *      in the form {@code [index]}
+     */
+    default void unknownPropertySkipped(Class<? extends Record> recordClass, String propertyName) { }
+
+    /**
+     * Called when a JSON property provides a value for a Record component which already has a value.
+     * If duplicate component values are not allowed (see {@link RecordTypeAdapterFactory.Builder#allowDuplicateComponentValues()})
+     * deserialization fails after this method has been called.
+     *
+     * @param recordClass
+     *      class of the Record being deserialized
+     * @param component
+     *      component with duplicate value
+     */
+    default void duplicateComponentValue(Class<? extends Record> recordClass, RecordComponent component) { }
+
+    /**
+     * Called when the JSON data does not provide a value for a Record component. If missing component
+     * values are not allowed (see {@link RecordTypeAdapterFactory.Builder#allowMissingComponentValues()})
+     * deserialization fails after this method has been called.
+     *
+     * @param recordClass
+     *      class of the Record being deserialized
+     * @param component
+     *      component without value
+     */
+    default void missingComponentValue(Class<? extends Record> recordClass, RecordComponent component) { }
+
+    /**
+     * Called when the canonical constructor of a Record class throws an exception during deserialization,
+     * for example because it validates the component values. Deserialization fails after this method has
+     * been called.
+     *
+     * @param recordClass
+     *      class of the Record being deserialized
+     * @param exception
+     *      exception thrown by the constructor
+     */
+    default void constructorFailed(Class<? extends Record> recordClass, Throwable exception) { }
+}
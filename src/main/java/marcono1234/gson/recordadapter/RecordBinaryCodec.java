@@ -0,0 +1,571 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static marcono1234.gson.recordadapter.RecordTypeAdapterFactory.getComponentDisplayString;
+
+/**
+ * Codec for a compact binary representation of Records. This can be used as faster and smaller alternative
+ * to JSON when the data is only read by applications using the same Record classes, for example for caching
+ * Records. The codec uses the component adapters, accessors and canonical constructor of the Record type
+ * adapters which a {@link RecordTypeAdapterFactory} has created for a {@code Gson} instance, and the resolved
+ * generic component types. Settings of the factory which only affect the JSON representation, such as
+ * property names or projections, have no effect on the binary representation.
+ *
+ * <p>The binary representation of a Record consists of a bitmap in which every non-primitive component has
+ * one bit indicating whether its value is non-{@code null}, followed by the non-{@code null} component values
+ * in component order:
+ * <ul>
+ *     <li>{@code byte} and {@code boolean} values are written as single byte</li>
+ *     <li>{@code short}, {@code int} and {@code long} values are written as ZigZag encoded variable-length
+ *          integers, and {@code char} values as variable-length integers</li>
+ *     <li>{@code float} and {@code double} values are written as their raw bits, in little-endian order;
+ *          special values such as NaN are supported regardless of the {@code Gson} settings</li>
+ *     <li>Strings are written as UTF-8 bytes, prefixed with the length</li>
+ *     <li>Enum constants are written as their ordinal</li>
+ *     <li>Nested Records are written in the same binary representation</li>
+ * </ul>
+ * This applies to primitive and boxed types and Enum classes only if the component uses the built-in Gson
+ * adapter for the type, and to nested Records only if the component uses the Record type adapter created
+ * by a {@code RecordTypeAdapterFactory}. The values of all other components, such as collections or
+ * components with {@link com.google.gson.annotations.JsonAdapter @JsonAdapter}, are written as JSON string
+ * using their component adapter.
+ *
+ * <p>The binary data does not contain any information about the Record classes. It can therefore only be
+ * decoded if the components of the Record classes and their order have not changed.
+ *
+ * <p>Encoding and decoding is reported to the {@linkplain RecordTypeAdapterFactory.Builder#withMetrics(RecordAdapterMetrics) metrics}
+ * and as Java Flight Recorder read and write events the same way as for JSON, once for every Record including
+ * nested Records. For the JFR events the properties count is the number of components.
+ *
+ * <p>Instances of this class are thread-safe.
+ *
+ * @param <T>
+ *      type of the Record
+ */
+public final class RecordBinaryCodec<T> {
+    private final RecordCodec recordCodec;
+
+    private RecordBinaryCodec(RecordCodec recordCodec) {
+        this.recordCodec = recordCodec;
+    }
+
+    /**
+     * Creates a binary codec for the given Record type, using the Record type adapters of the {@code Gson}
+     * instance. A {@link RecordTypeAdapterFactory} must be registered with the {@code Gson} instance.
+     *
+     * @param gson
+     *      Gson instance providing the Record type adapters
+     * @param type
+     *      the Record type, possibly a parameterization of a generic Record class
+     * @param <T>
+     *      type of the Record
+     * @return the created codec
+     * @throws IllegalArgumentException
+     *      If the type adapter for {@code type} has not been created by a {@code RecordTypeAdapterFactory}
+     */
+    public static <T> RecordBinaryCodec<T> create(Gson gson, TypeToken<T> type) {
+        RecordCodec recordCodec = createRecordCodec(gson, type, new HashMap<>());
+        if (recordCodec == null) {
+            throw new IllegalArgumentException("Type adapter for " + type + " has not been created by a RecordTypeAdapterFactory");
+        }
+        return new RecordBinaryCodec<>(recordCodec);
+    }
+
+    /**
+     * Creates a binary codec for the given Record class, using the Record type adapters of the {@code Gson}
+     * instance. A {@link RecordTypeAdapterFactory} must be registered with the {@code Gson} instance.
+     *
+     * @param gson
+     *      Gson instance providing the Record type adapters
+     * @param recordClass
+     *      the Record class
+     * @param <T>
+     *      type of the Record
+     * @return the created codec
+     * @throws IllegalArgumentException
+     *      If the type adapter for {@code recordClass} has not been created by a {@code RecordTypeAdapterFactory}
+     */
+    public static <T extends Record> RecordBinaryCodec<T> create(Gson gson, Class<T> recordClass) {
+        return create(gson, TypeToken.get(recordClass));
+    }
+
+    /**
+     * Encodes the Record.
+     *
+     * @param record
+     *      the Record to encode
+     * @return the binary representation of the Record
+     * @throws JsonParseException
+     *      If getting a component value fails
+     */
+    public byte[] encode(T record) {
+        Objects.requireNonNull(record);
+        Output out = new Output();
+        recordCodec.write(out, record);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a Record.
+     *
+     * @param data
+     *      the binary representation of the Record, as created by {@link #encode(Object)}
+     * @return the decoded Record
+     * @throws JsonParseException
+     *      If the data is malformed, or if creating the Record instance fails
+     */
+    public T decode(byte[] data) {
+        Input in = new Input(data);
+        Object record = recordCodec.read(in);
+        if (in.position != data.length) {
+            throw createMalformedException("Unexpected trailing data at offset " + in.position);
+        }
+        @SuppressWarnings("unchecked")
+        T result = (T) record;
+        return result;
+    }
+
+    private static JsonParseException createMalformedException(String message) {
+        return new JsonParseException("Malformed binary data: " + message);
+    }
+
+    /**
+     * Creates the codec for a Record type; returns {@code null} if the type adapter for it has not
+     * been created by a {@code RecordTypeAdapterFactory}.
+     *
+     * @param codecs
+     *      codecs which have already been created, to support Records which directly or indirectly
+     *      have components of their own type
+     */
+    private static RecordCodec createRecordCodec(Gson gson, TypeToken<?> type, Map<TypeToken<?>, RecordCodec> codecs) {
+        RecordCodec recordCodec = codecs.get(type);
+        if (recordCodec != null) {
+            return recordCodec;
+        }
+        if (!(gson.getAdapter(type) instanceof RecordTypeAdapter<?> recordAdapter)) {
+            return null;
+        }
+
+        recordCodec = new RecordCodec(recordAdapter);
+        codecs.put(type, recordCodec);
+
+        RecordMetadata metadata = RecordMetadata.get(type.getRawType());
+        Type[] componentTypes = metadata.resolvedTypesCache.resolve(type);
+        ComponentCodec[] componentCodecs = new ComponentCodec[componentTypes.length];
+        for (int i = 0; i < componentCodecs.length; i++) {
+            componentCodecs[i] = createComponentCodec(gson, recordAdapter, metadata, i, componentTypes[i], codecs);
+        }
+        recordCodec.setComponentCodecs(componentCodecs);
+        return recordCodec;
+    }
+
+    private static ComponentCodec createComponentCodec(Gson gson, RecordTypeAdapter<?> recordAdapter, RecordMetadata metadata, int componentIndex, Type componentType, Map<TypeToken<?>, RecordCodec> codecs) {
+        RecordComponent component = metadata.components[componentIndex];
+        PrimitiveKind primitiveKind = recordAdapter.getPrimitiveKind(componentIndex);
+        if (primitiveKind != null) {
+            return new ComponentCodec(Kind.forPrimitiveKind(primitiveKind), component, null, null, null);
+        }
+
+        TypeAdapter<?> componentAdapter = recordAdapter.getComponentAdapter(componentIndex);
+        TypeToken<?> componentTypeToken = TypeToken.get(componentType);
+        Class<?> rawType = componentTypeToken.getRawType();
+        Kind kind = Kind.forBuiltInType(rawType);
+        if (kind != null && PrimitiveKind.isBuiltInAdapter(componentAdapter, rawType)) {
+            return new ComponentCodec(kind, component, null, null, null);
+        }
+        if (Enum.class.isAssignableFrom(rawType) && rawType != Enum.class && PrimitiveKind.isBuiltInEnumAdapter(componentAdapter)) {
+            // Type might be the anonymous subclass of an enum constant with body
+            Class<?> enumClass = rawType.isEnum() ? rawType : rawType.getSuperclass();
+            return new ComponentCodec(Kind.ENUM, component, enumClass.getEnumConstants(), null, null);
+        }
+        // Component adapter might be a placeholder of Gson for Records which have components of their own type,
+        // so check the adapter Gson uses for the type instead, unless a different adapter was specified
+        if (rawType.isRecord() && metadata.jsonAdapterAnnotations[componentIndex] == null) {
+            RecordCodec nestedCodec = createRecordCodec(gson, componentTypeToken, codecs);
+            if (nestedCodec != null) {
+                return new ComponentCodec(Kind.RECORD, component, null, nestedCodec, null);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) componentAdapter;
+        return new ComponentCodec(Kind.JSON, component, null, null, adapter);
+    }
+
+    private enum Kind {
+        // Kinds for components whose values are stored in primitive slots
+        SLOT_INTEGRAL,
+        SLOT_FLOAT,
+        SLOT_DOUBLE,
+        SLOT_BOOLEAN,
+
+        BOOLEAN,
+        BYTE,
+        SHORT,
+        CHAR,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        STRING,
+        ENUM,
+        RECORD,
+        /** Value is written as JSON string using the component adapter */
+        JSON;
+
+        static Kind forPrimitiveKind(PrimitiveKind primitiveKind) {
+            return switch (primitiveKind) {
+                case INT, LONG -> SLOT_INTEGRAL;
+                case FLOAT, FLOAT_ALLOW_SPECIAL -> SLOT_FLOAT;
+                case DOUBLE, DOUBLE_ALLOW_SPECIAL -> SLOT_DOUBLE;
+                case BOOLEAN -> SLOT_BOOLEAN;
+            };
+        }
+
+        /**
+         * Gets the kind for a primitive or boxed type or {@code String}; returns {@code null} for all other types.
+         */
+        static Kind forBuiltInType(Class<?> type) {
+            if (type == boolean.class || type == Boolean.class) return BOOLEAN;
+            if (type == byte.class || type == Byte.class) return BYTE;
+            if (type == short.class || type == Short.class) return SHORT;
+            if (type == char.class || type == Character.class) return CHAR;
+            if (type == int.class || type == Integer.class) return INT;
+            if (type == long.class || type == Long.class) return LONG;
+            if (type == float.class || type == Float.class) return FLOAT;
+            if (type == double.class || type == Double.class) return DOUBLE;
+            if (type == String.class) return STRING;
+            return null;
+        }
+    }
+
+    /**
+     * @param enumConstants
+     *      for {@link Kind#ENUM} the enum constants
+     * @param recordCodec
+     *      for {@link Kind#RECORD} the codec of the nested Record
+     * @param adapter
+     *      for {@link Kind#JSON} the component adapter
+     */
+    private record ComponentCodec(Kind kind, RecordComponent component, Object[] enumConstants, RecordCodec recordCodec, TypeAdapter<Object> adapter) {
+        /** Values of primitive components are never {@code null}, so they are not included in the bitmap */
+        boolean isPrimitive() {
+            return component.getType().isPrimitive();
+        }
+    }
+
+    private static class RecordCodec {
+        private final RecordTypeAdapter<?> recordAdapter;
+        private final Class<? extends Record> recordType;
+        /** {@code null} if no metrics are reported */
+        private final RecordAdapterMetrics metrics;
+        // Set after construction because a component might use this codec as well
+        private ComponentCodec[] componentCodecs;
+        /** Number of bytes of the bitmap for non-primitive components */
+        private int bitmapLength;
+
+        RecordCodec(RecordTypeAdapter<?> recordAdapter) {
+            this.recordAdapter = recordAdapter;
+            recordType = recordAdapter.getRecordType();
+            metrics = recordAdapter.getMetrics();
+        }
+
+        void setComponentCodecs(ComponentCodec[] componentCodecs) {
+            this.componentCodecs = componentCodecs;
+            int nullableCount = 0;
+            for (ComponentCodec componentCodec : componentCodecs) {
+                if (!componentCodec.isPrimitive()) {
+                    nullableCount++;
+                }
+            }
+            bitmapLength = (nullableCount + 7) / 8;
+        }
+
+        void write(Output out, Object record) {
+            // Duration includes writing nested Records
+            Object jfrEvent = JfrEvents.beginWrite();
+            long startNanos = metrics == null ? 0 : System.nanoTime();
+            int bitmapOffset = out.reserve(bitmapLength);
+            int nullableIndex = 0;
+            for (int i = 0; i < componentCodecs.length; i++) {
+                ComponentCodec componentCodec = componentCodecs[i];
+                Kind kind = componentCodec.kind;
+                switch (kind) {
+                    case SLOT_INTEGRAL -> out.writeZigZag(recordAdapter.getPrimitiveComponentValue(i, record));
+                    case SLOT_FLOAT -> out.writeFixed32((int) recordAdapter.getPrimitiveComponentValue(i, record));
+                    case SLOT_DOUBLE -> out.writeFixed64(recordAdapter.getPrimitiveComponentValue(i, record));
+                    case SLOT_BOOLEAN -> out.writeByte(recordAdapter.getPrimitiveComponentValue(i, record) != 0 ? 1 : 0);
+                    default -> {
+                        Object value = recordAdapter.getComponentValue(i, record);
+                        if (!componentCodec.isPrimitive()) {
+                            if (value == null) {
+                                nullableIndex++;
+                                continue;
+                            }
+                            out.setBit(bitmapOffset, nullableIndex++);
+                        }
+                        writeValue(out, componentCodec, value);
+                    }
+                }
+            }
+            if (jfrEvent != null) {
+                JfrEvents.commitWrite(jfrEvent, recordType, componentCodecs.length);
+            }
+            if (metrics != null) {
+                metrics.recordWritten(recordType, System.nanoTime() - startNanos);
+            }
+        }
+
+        private static void writeValue(Output out, ComponentCodec componentCodec, Object value) {
+            switch (componentCodec.kind) {
+                case BOOLEAN -> out.writeByte((Boolean) value ? 1 : 0);
+                case BYTE -> out.writeByte((Byte) value);
+                case SHORT -> out.writeZigZag((Short) value);
+                case CHAR -> out.writeVarLong((Character) value);
+                case INT -> out.writeZigZag((Integer) value);
+                case LONG -> out.writeZigZag((Long) value);
+                case FLOAT -> out.writeFixed32(Float.floatToRawIntBits((Float) value));
+                case DOUBLE -> out.writeFixed64(Double.doubleToRawLongBits((Double) value));
+                case STRING -> out.writeString((String) value);
+                case ENUM -> out.writeVarLong(((Enum<?>) value).ordinal());
+                case RECORD -> componentCodec.recordCodec.write(out, value);
+                case JSON -> out.writeString(componentCodec.adapter.toJson(value));
+                default -> throw new AssertionError("Unexpected kind: " + componentCodec.kind);
+            }
+        }
+
+        Object read(Input in) {
+            Object jfrEvent = JfrEvents.beginRead();
+            long startNanos = metrics == null ? 0 : System.nanoTime();
+            int bitmapOffset = in.skip(bitmapLength);
+            Object[] values = recordAdapter.newReferenceSlots();
+            long[] primitiveValues = recordAdapter.newPrimitiveSlots();
+            int nullableIndex = 0;
+            for (int i = 0; i < componentCodecs.length; i++) {
+                ComponentCodec componentCodec = componentCodecs[i];
+                int slot = recordAdapter.getSlot(i);
+                switch (componentCodec.kind) {
+                    case SLOT_INTEGRAL -> primitiveValues[slot] = in.readZigZag();
+                    case SLOT_FLOAT -> primitiveValues[slot] = in.readFixed32();
+                    case SLOT_DOUBLE -> primitiveValues[slot] = in.readFixed64();
+                    case SLOT_BOOLEAN -> primitiveValues[slot] = in.readByte() != 0 ? 1 : 0;
+                    default -> {
+                        Object value;
+                        if (!componentCodec.isPrimitive() && !in.isBitSet(bitmapOffset, nullableIndex++)) {
+                            value = null;
+                        } else {
+                            value = readValue(in, componentCodec);
+                            // Custom adapter for primitive type might return null
+                            if (value == null && componentCodec.isPrimitive()) {
+                                value = RecordTypeAdapter.getPrimitiveDefaultValue(componentCodec.component.getType());
+                            }
+                        }
+                        values[slot] = value;
+                    }
+                }
+            }
+            Object record = recordAdapter.createRecord(values, primitiveValues);
+            if (jfrEvent != null) {
+                JfrEvents.commitRead(jfrEvent, recordType, componentCodecs.length);
+            }
+            if (metrics != null) {
+                metrics.recordRead(recordType, System.nanoTime() - startNanos);
+            }
+            return record;
+        }
+
+        private static Object readValue(Input in, ComponentCodec componentCodec) {
+            return switch (componentCodec.kind) {
+                case BOOLEAN -> in.readByte() != 0;
+                case BYTE -> in.readByte();
+                case SHORT -> (short) in.readZigZag();
+                case CHAR -> (char) in.readVarLong();
+                case INT -> (int) in.readZigZag();
+                case LONG -> in.readZigZag();
+                case FLOAT -> Float.intBitsToFloat(in.readFixed32());
+                case DOUBLE -> Double.longBitsToDouble(in.readFixed64());
+                case STRING -> in.readString();
+                case ENUM -> {
+                    long ordinal = in.readVarLong();
+                    Object[] enumConstants = componentCodec.enumConstants;
+                    if (ordinal < 0 || ordinal >= enumConstants.length) {
+                        throw createMalformedException("Invalid enum ordinal " + ordinal + " for " + enumConstants.getClass().getComponentType().getName());
+                    }
+                    yield enumConstants[(int) ordinal];
+                }
+                case RECORD -> componentCodec.recordCodec.read(in);
+                case JSON -> {
+                    String json = in.readString();
+                    try {
+                        yield componentCodec.adapter.fromJson(json);
+                    } catch (IOException e) {
+                        throw new JsonSyntaxException("Failed reading JSON value of " + getComponentDisplayString(componentCodec.component), e);
+                    }
+                }
+                default -> throw new AssertionError("Unexpected kind: " + componentCodec.kind);
+            };
+        }
+    }
+
+    private static class Output {
+        private byte[] buffer = new byte[64];
+        private int size = 0;
+
+        private void ensureCapacity(int additionalLength) {
+            if (additionalLength > buffer.length - size) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additionalLength));
+            }
+        }
+
+        /**
+         * Reserves bytes, which are initially 0, and returns their offset.
+         */
+        int reserve(int length) {
+            ensureCapacity(length);
+            int offset = size;
+            size += length;
+            return offset;
+        }
+
+        void setBit(int offset, int index) {
+            buffer[offset + (index >>> 3)] |= (byte) (1 << (index & 7));
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeFixed32(int value) {
+            ensureCapacity(4);
+            for (int i = 0; i < 4; i++) {
+                buffer[size++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        void writeFixed64(long value) {
+            ensureCapacity(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[size++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static class Input {
+        private final byte[] data;
+        private int position = 0;
+
+        Input(byte[] data) {
+            this.data = data;
+        }
+
+        private void require(int length) {
+            if (length > data.length - position) {
+                throw createMalformedException("Unexpected end of data at offset " + position);
+            }
+        }
+
+        /**
+         * Skips bytes and returns their offset.
+         */
+        int skip(int length) {
+            require(length);
+            int offset = position;
+            position += length;
+            return offset;
+        }
+
+        boolean isBitSet(int offset, int index) {
+            return (data[offset + (index >>> 3)] & (1 << (index & 7))) != 0;
+        }
+
+        byte readByte() {
+            require(1);
+            return data[position++];
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw createMalformedException("Invalid variable-length integer at offset " + position);
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        int readFixed32() {
+            require(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value |= (data[position++] & 0xFF) << (i * 8);
+            }
+            return value;
+        }
+
+        long readFixed64() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (data[position++] & 0xFFL) << (i * 8);
+            }
+            return value;
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length < 0 || length > data.length - position) {
+                throw createMalformedException("Invalid string length " + length + " at offset " + position);
+            }
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
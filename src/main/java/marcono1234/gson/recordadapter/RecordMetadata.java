@@ -0,0 +1,200 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.annotations.Since;
+import com.google.gson.annotations.Until;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static marcono1234.gson.recordadapter.RecordTypeAdapterFactory.getComponentDisplayString;
+
+/**
+ * Reflection data of a Record class which does not depend on the {@link RecordTypeAdapterFactory}
+ * configuration or on the {@code Gson} instance. This data is obtained only once per Record class
+ * and is then shared by all factories, so that creating adapters for additional {@code Gson}
+ * instances only has to resolve the component adapters.
+ *
+ * <p>The data is cached using a {@link ClassValue}, which does not prevent unloading of the
+ * Record class.
+ */
+final class RecordMetadata {
+    // These annotations are not supported because this adapter factory cannot access Gson's exclusion logic
+    private static final List<Class<? extends Annotation>> UNSUPPORTED_FIELD_ANNOTATIONS = List.of(
+        Expose.class,
+        Since.class,
+        Until.class
+    );
+
+    private static final ClassValue<RecordMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected RecordMetadata computeValue(Class<?> type) {
+            // Exceptions are not cached, so failing Record classes are inspected again on next access
+            return create(type);
+        }
+    };
+
+    /**
+     * Gets the metadata for the given Record class.
+     *
+     * @throws RecordTypeAdapterException
+     *      If the Record class is not accessible or is incorrectly annotated
+     */
+    static RecordMetadata get(Class<?> recordType) throws RecordTypeAdapterException {
+        return CACHE.get(recordType);
+    }
+
+    final RecordComponent[] components;
+    /** Generic types of the components, as declared by the Record class */
+    final Type[] componentTypes;
+    /** Cache for the component types resolved for a specific parameterization of the Record class */
+    final ComponentTypeHelper.ResolvedTypesCache resolvedTypesCache;
+    /** Handles invoking the component accessors, without any type adaptations */
+    final MethodHandle[] accessors;
+    /** Handle invoking the canonical constructor, without any type adaptations */
+    final MethodHandle constructor;
+    /** For each component its {@code @SerializedName} annotation; {@code null} if not annotated */
+    final SerializedName[] serializedNames;
+    /** For each component its {@code @JsonAdapter} annotation; {@code null} if not annotated */
+    final JsonAdapter[] jsonAdapterAnnotations;
+    /** For each component the unsupported Gson annotations it is annotated with, if any */
+    final List<List<Class<? extends Annotation>>> unsupportedAnnotations;
+
+    private RecordMetadata(
+        Class<?> recordType,
+        RecordComponent[] components,
+        Type[] componentTypes,
+        MethodHandle[] accessors,
+        MethodHandle constructor,
+        SerializedName[] serializedNames,
+        JsonAdapter[] jsonAdapterAnnotations,
+        List<List<Class<? extends Annotation>>> unsupportedAnnotations
+    ) {
+        this.components = components;
+        this.componentTypes = componentTypes;
+        this.resolvedTypesCache = new ComponentTypeHelper.ResolvedTypesCache(recordType, componentTypes, ComponentTypeHelper.ResolvedTypesCache.DEFAULT_MAX_SIZE);
+        this.accessors = accessors;
+        this.constructor = constructor;
+        this.serializedNames = serializedNames;
+        this.jsonAdapterAnnotations = jsonAdapterAnnotations;
+        this.unsupportedAnnotations = unsupportedAnnotations;
+    }
+
+    private static RecordMetadata create(Class<?> recordType) throws RecordTypeAdapterException {
+        RecordComponent[] components = recordType.getRecordComponents();
+        MethodHandle constructor = getConstructorHandle(recordType, getCanonicalConstructor(recordType, components));
+
+        Type[] componentTypes = new Type[components.length];
+        MethodHandle[] accessors = new MethodHandle[components.length];
+        SerializedName[] serializedNames = new SerializedName[components.length];
+        JsonAdapter[] jsonAdapterAnnotations = new JsonAdapter[components.length];
+        List<List<Class<? extends Annotation>>> unsupportedAnnotations = new ArrayList<>(components.length);
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            componentTypes[i] = component.getGenericType();
+            Method accessor = component.getAccessor();
+            try {
+                accessor.setAccessible(true);
+            } catch (InaccessibleObjectException e) {
+                // Should be impossible because getting canonical constructor would already have thrown
+                // InaccessibleObjectException, but throw descriptive exception here nonetheless
+                throw new RecordTypeAdapterException("Cannot access accessor method for " + getComponentDisplayString(component) + "; either change the visibility of the record class to `public` or open it to this library", e);
+            }
+            accessors[i] = getAccessorHandle(component, accessor);
+
+            Field componentField = getComponentField(component);
+            serializedNames[i] = getSerializedName(component, componentField);
+            // @JsonAdapter only has FIELD as target, so need to get annotation from component field
+            jsonAdapterAnnotations[i] = componentField.getAnnotation(JsonAdapter.class);
+            unsupportedAnnotations.add(UNSUPPORTED_FIELD_ANNOTATIONS.stream()
+                .filter(componentField::isAnnotationPresent)
+                .toList());
+        }
+
+        return new RecordMetadata(recordType, components, componentTypes, accessors, constructor, serializedNames, jsonAdapterAnnotations, unsupportedAnnotations);
+    }
+
+    private static Field getComponentField(RecordComponent component) throws RecordTypeAdapterException {
+        try {
+            return component.getDeclaringRecord().getDeclaredField(component.getName());
+        } catch (NoSuchFieldException e) {
+            throw new RecordTypeAdapterException("Unexpected: Failed finding component field for " + component);
+        }
+    }
+
+    private static SerializedName getSerializedName(RecordComponent component, Field componentField) throws RecordTypeAdapterException {
+        // SerializedName is not applicable to RECORD_COMPONENT, but according to the JLS because it is applicable
+        // to METHOD and FIELD it is propagated to the members, see https://docs.oracle.com/javase/specs/jls/se17/html/jls-8.html#jls-8.10.1
+        // However, accessor method can be overridden in which case annotation is not propagated, so have to
+        // get it from private component field
+        SerializedName serializedName = componentField.getAnnotation(SerializedName.class);
+        SerializedName accessorSerializedName = component.getAccessor().getAnnotation(SerializedName.class);
+        if (serializedName == null) {
+            if (accessorSerializedName != null) {
+                throw new RecordTypeAdapterException("@SerializedName on accessor method is not supported; place it on the corresponding record component instead");
+            }
+        } else if (accessorSerializedName != null && !serializedName.equals(accessorSerializedName)) {
+            // Detect mismatching annotation on custom accessor
+            throw new RecordTypeAdapterException("Using different @SerializedName on accessor than on corresponding record component is not supported");
+        }
+        return serializedName;
+    }
+
+    /**
+     * Creates a method handle for the given accessor, which has already been made accessible. Invoking
+     * the handle avoids the overhead of {@link Method#invoke(Object, Object...)} for every serialized
+     * component value.
+     */
+    private static MethodHandle getAccessorHandle(RecordComponent component, Method accessor) throws RecordTypeAdapterException {
+        MethodHandle handle;
+        try {
+            // Does not perform access checks because accessor has already been made accessible
+            handle = MethodHandles.lookup().unreflect(accessor);
+        } catch (IllegalAccessException e) {
+            throw new RecordTypeAdapterException("Cannot access accessor method for " + getComponentDisplayString(component) + "; either change the visibility of the record class to `public` or open it to this library", e);
+        }
+        return handle;
+    }
+
+    private static Constructor<?> getCanonicalConstructor(Class<?> recordType, RecordComponent[] components) throws RecordTypeAdapterException {
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+        }
+
+        Constructor<?> constructor;
+        // Get canonical constructor, see also https://docs.oracle.com/javase/specs/jls/se17/html/jls-8.html#jls-8.10.4
+        try {
+            constructor = recordType.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            throw new RecordTypeAdapterException("Unexpected: Failed finding canonical constructor for " + recordType, e);
+        }
+        try {
+            constructor.setAccessible(true);
+        } catch (InaccessibleObjectException e) {
+            // Constructor has the same visibility as record, so might not be accessible
+            throw new RecordTypeAdapterException("Cannot access canonical constructor of " + recordType + "; either change the visibility of the record class to `public` or open it to this library", e);
+        }
+        return constructor;
+    }
+
+    private static MethodHandle getConstructorHandle(Class<?> recordType, Constructor<?> constructor) throws RecordTypeAdapterException {
+        try {
+            // Does not perform access checks because constructor has already been made accessible
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            throw new RecordTypeAdapterException("Cannot access canonical constructor of " + recordType + "; either change the visibility of the record class to `public` or open it to this library", e);
+        }
+    }
+}
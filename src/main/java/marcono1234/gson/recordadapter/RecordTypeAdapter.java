@@ -0,0 +1,788 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static marcono1234.gson.recordadapter.RecordTypeAdapterFactory.getComponentDisplayString;
+
+/**
+ * Type adapter for a Record class, created by {@link RecordTypeAdapterFactory}.
+ *
+ * <p>Component values read during deserialization are stored in slots until the Record instance is
+ * created: Values of primitive components using Gson's built-in adapter are stored without boxing in a
+ * {@code long[]}, all other values are stored in an {@code Object[]}. During serialization the values
+ * of these primitive components are obtained and written without boxing as well. The serialization
+ * names of the components are encoded once in advance for writing them to a {@link CompactJsonWriter}.
+ *
+ * <p>During deserialization JSON properties are expected to appear in component order, which is the
+ * order used during serialization. Each property name is therefore first compared with the serialization
+ * name of the next expected component, and only looked up by name if it does not match.
+ *
+ * <p>If array encoding is used, Records are instead represented as JSON arrays containing the component
+ * values in component order, without any property names.
+ */
+class RecordTypeAdapter<T> extends TypeAdapter<T> {
+    private final Class<? extends Record> recordType;
+    private final RecordComponent[] components;
+    /** Handles of type {@code (Object)Object} invoking the accessors */
+    private final MethodHandle[] accessors;
+    /**
+     * Handles of type {@code (Object)long} invoking the accessors and converting the result to a slot value;
+     * {@code null} for components without primitive kind
+     */
+    private final MethodHandle[] primitiveAccessors;
+    private final String[] componentSerializationNames;
+    /** Pre-encoded serialization names, used when writing to a {@link CompactJsonWriter} */
+    private final CompactJsonWriter.EncodedName[] encodedSerializationNames;
+    private final PropertyNameLookup componentDeserializationNames;
+    private final TypeAdapter<?>[] componentAdapters;
+    /** For each component the primitive kind, or {@code null} if the value is stored in a reference slot */
+    private final PrimitiveKind[] primitiveKinds;
+    /** For each component the index of its slot, either in the reference or in the primitive slots array */
+    private final int[] slots;
+    private final int referenceSlotsCount;
+    private final int primitiveSlotsCount;
+    /**
+     * Presence mask in which the bits of all components in the range 0 - 63 are set; presence of these
+     * components is tracked in a local {@code long} during deserialization
+     */
+    private final long requiredMask;
+    /**
+     * Presence masks for the components with index &gt;= 64, one element per 64 components; {@code null}
+     * if the Record class has at most 64 components
+     */
+    private final long[] requiredOverflowMasks;
+    /** Handle of type {@code (Object[], long[])Object} invoking the canonical constructor */
+    private final MethodHandle constructor;
+
+    private final boolean allowMissingComponentValues;
+    private final boolean allowUnknownProperties;
+    private final boolean allowDuplicateComponentValues;
+    private final boolean allowJsonNullForPrimitives;
+    /** Whether Records are represented as JSON arrays instead of JSON objects */
+    private final boolean useArrayEncoding;
+    /** Components whose values are skipped during deserialization; {@code null} if all are deserialized */
+    private final boolean[] skippedComponents;
+    /** Components whose String values are deduplicated using {@link #stringInternPool}; {@code null} if none */
+    private final boolean[] internedComponents;
+    /** {@code null} if no component values are deduplicated */
+    private final StringInternPool stringInternPool;
+    /** {@code null} if no statistics are collected */
+    private final PropertyOrderCounter propertyOrderCounter;
+    /** {@code null} if no metrics are reported */
+    private final RecordAdapterMetrics metrics;
+
+    /**
+     * Thread-safe counter for {@link PropertyOrderStatistics}.
+     */
+    static class PropertyOrderCounter {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        void add(int hits, int misses) {
+            this.hits.add(hits);
+            this.misses.add(misses);
+        }
+
+        PropertyOrderStatistics getStatistics() {
+            return new PropertyOrderStatistics(hits.sum(), misses.sum());
+        }
+    }
+
+    RecordTypeAdapter(
+        Class<? extends Record> recordType,
+        RecordComponent[] components,
+        MethodHandle[] accessors,
+        MethodHandle[] primitiveAccessors,
+        String[] componentSerializationNames,
+        PropertyNameLookup componentDeserializationNames,
+        TypeAdapter<?>[] componentAdapters,
+        PrimitiveKind[] primitiveKinds,
+        int[] slots,
+        MethodHandle constructor,
+        boolean allowMissingComponentValues,
+        boolean allowUnknownProperties,
+        boolean allowDuplicateComponentValues,
+        boolean allowJsonNullForPrimitives,
+        boolean useArrayEncoding,
+        boolean[] skippedComponents,
+        boolean[] internedComponents,
+        StringInternPool stringInternPool,
+        PropertyOrderCounter propertyOrderCounter,
+        RecordAdapterMetrics metrics
+    ) {
+        this.recordType = recordType;
+        this.components = components;
+        this.accessors = accessors;
+        this.primitiveAccessors = primitiveAccessors;
+        this.componentSerializationNames = componentSerializationNames;
+        this.encodedSerializationNames = new CompactJsonWriter.EncodedName[componentSerializationNames.length];
+        for (int i = 0; i < componentSerializationNames.length; i++) {
+            encodedSerializationNames[i] = CompactJsonWriter.EncodedName.encode(componentSerializationNames[i]);
+        }
+        this.componentDeserializationNames = componentDeserializationNames;
+        this.componentAdapters = componentAdapters;
+        this.primitiveKinds = primitiveKinds;
+        this.slots = slots;
+        this.constructor = constructor;
+        this.allowMissingComponentValues = allowMissingComponentValues;
+        this.allowUnknownProperties = allowUnknownProperties;
+        this.allowDuplicateComponentValues = allowDuplicateComponentValues;
+        this.allowJsonNullForPrimitives = allowJsonNullForPrimitives;
+        this.useArrayEncoding = useArrayEncoding;
+        this.skippedComponents = skippedComponents;
+        this.internedComponents = internedComponents;
+        this.stringInternPool = stringInternPool;
+        this.propertyOrderCounter = propertyOrderCounter;
+        this.metrics = metrics;
+
+        int primitiveSlotsCount = 0;
+        for (PrimitiveKind primitiveKind : primitiveKinds) {
+            if (primitiveKind != null) {
+                primitiveSlotsCount++;
+            }
+        }
+        this.primitiveSlotsCount = primitiveSlotsCount;
+        this.referenceSlotsCount = components.length - primitiveSlotsCount;
+
+        int componentsCount = components.length;
+        requiredMask = componentsCount >= Long.SIZE ? -1L : (1L << componentsCount) - 1;
+        if (componentsCount > Long.SIZE) {
+            requiredOverflowMasks = new long[(componentsCount - 1) / Long.SIZE];
+            for (int i = Long.SIZE; i < componentsCount; i++) {
+                requiredOverflowMasks[i / Long.SIZE - 1] |= 1L << i;
+            }
+        } else {
+            requiredOverflowMasks = null;
+        }
+    }
+
+    private static JsonParseException createAccessorException(Throwable t) {
+        // TODO: Gson has no well fitting exception class?
+        return new JsonParseException("Failed getting component value", t);
+    }
+
+    /**
+     * Checks whether the given JSON property name is used for any of the components.
+     */
+    boolean usesPropertyName(String name) {
+        for (String serializationName : componentSerializationNames) {
+            if (serializationName.equals(name)) {
+                return true;
+            }
+        }
+        return componentDeserializationNames.get(name) != PropertyNameLookup.NOT_FOUND;
+    }
+
+    Class<? extends Record> getRecordType() {
+        return recordType;
+    }
+
+    /**
+     * Gets the metrics listener, or {@code null} if no metrics are reported.
+     */
+    RecordAdapterMetrics getMetrics() {
+        return metrics;
+    }
+
+    int getComponentsCount() {
+        return components.length;
+    }
+
+    TypeAdapter<?> getComponentAdapter(int componentIndex) {
+        return componentAdapters[componentIndex];
+    }
+
+    /**
+     * Gets the primitive kind of the component, or {@code null} if the value is stored in a reference slot.
+     */
+    PrimitiveKind getPrimitiveKind(int componentIndex) {
+        return primitiveKinds[componentIndex];
+    }
+
+    int getSlot(int componentIndex) {
+        return slots[componentIndex];
+    }
+
+    /**
+     * Creates the array of reference slots for {@link #createRecord(Object[], long[])}; {@code null} if
+     * there are no reference slots.
+     */
+    Object[] newReferenceSlots() {
+        return referenceSlotsCount == 0 ? null : new Object[referenceSlotsCount];
+    }
+
+    /**
+     * Creates the array of primitive slots for {@link #createRecord(Object[], long[])}; {@code null} if
+     * there are no primitive slots.
+     */
+    long[] newPrimitiveSlots() {
+        return primitiveSlotsCount == 0 ? null : new long[primitiveSlotsCount];
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        writeNonNull(out, value, null, null);
+    }
+
+    /**
+     * Writes a non-{@code null} Record. If {@code discriminatorValue} is not {@code null} it is written
+     * before the component values; as property with the name {@code discriminatorName}, or as first
+     * array element if array encoding is used.
+     */
+    void writeNonNull(JsonWriter out, Object value, String discriminatorName, String discriminatorValue) throws IOException {
+        // Duration includes writing nested values, such as other Records
+        Object jfrEvent = JfrEvents.beginWrite();
+        long startNanos = metrics == null ? 0 : System.nanoTime();
+        CompactJsonWriter compactWriter = out instanceof CompactJsonWriter w ? w : null;
+        // Only write primitive values directly to a JsonWriter itself or a CompactJsonWriter; for other
+        // subclasses (such as the one used by Gson.toJsonTree) the result might differ from the built-in
+        // Gson adapter, e.g. due to different Number subclasses
+        boolean writePrimitivesDirectly = out.getClass() == JsonWriter.class || compactWriter != null;
+        if (useArrayEncoding) {
+            out.beginArray();
+        } else {
+            out.beginObject();
+        }
+        if (discriminatorValue != null) {
+            if (!useArrayEncoding) {
+                out.name(discriminatorName);
+            }
+            out.value(discriminatorValue);
+        }
+        for (int i = 0; i < accessors.length; i++) {
+            PrimitiveKind primitiveKind = primitiveKinds[i];
+            // Use accessor instead of underlying field because accessor is public but underlying
+            // field is private; additionally accessor might transform result
+            if (writePrimitivesDirectly && primitiveKind != null) {
+                long componentValue = getPrimitiveComponentValue(i, value);
+                if (!useArrayEncoding) {
+                    writeName(out, compactWriter, i);
+                }
+                primitiveKind.write(out, componentValue);
+            } else {
+                Object componentValue = getComponentValue(i, value);
+                if (!useArrayEncoding) {
+                    writeName(out, compactWriter, i);
+                }
+                @SuppressWarnings("unchecked")
+                TypeAdapter<Object> adapter = (TypeAdapter<Object>) componentAdapters[i];
+                adapter.write(out, componentValue);
+            }
+        }
+        if (useArrayEncoding) {
+            out.endArray();
+        } else {
+            out.endObject();
+        }
+        if (jfrEvent != null) {
+            JfrEvents.commitWrite(jfrEvent, recordType, accessors.length);
+        }
+        if (metrics != null) {
+            metrics.recordWritten(recordType, System.nanoTime() - startNanos);
+        }
+    }
+
+    Object getComponentValue(int i, Object record) {
+        try {
+            return (Object) accessors[i].invokeExact(record);
+        } catch (Error e) {
+            // Don't wrap errors, such as StackOverflowError for cyclic records
+            throw e;
+        } catch (Throwable t) {
+            throw createAccessorException(t);
+        }
+    }
+
+    /**
+     * Gets the slot value of a component with primitive kind.
+     */
+    long getPrimitiveComponentValue(int i, Object record) {
+        try {
+            return (long) primitiveAccessors[i].invokeExact(record);
+        } catch (Error e) {
+            // Don't wrap errors, such as StackOverflowError for cyclic records
+            throw e;
+        } catch (Throwable t) {
+            throw createAccessorException(t);
+        }
+    }
+
+    private void writeName(JsonWriter out, CompactJsonWriter compactWriter, int componentIndex) throws IOException {
+        if (compactWriter != null) {
+            compactWriter.encodedName(encodedSerializationNames[componentIndex]);
+        } else {
+            out.name(componentSerializationNames[componentIndex]);
+        }
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.skipValue();
+            return null;
+        }
+
+        if (useArrayEncoding) {
+            in.beginArray();
+        } else {
+            in.beginObject();
+        }
+        return readRemaining(in);
+    }
+
+    /**
+     * Reads the remaining component values of a JSON object, or of a JSON array if array encoding is used,
+     * whose start has already been consumed, for example by an adapter which has read a discriminator first.
+     */
+    T readRemaining(JsonReader in) throws IOException {
+        Object jfrEvent = JfrEvents.beginRead();
+        long startNanos = metrics == null ? 0 : System.nanoTime();
+        // Only allocate slot arrays if needed
+        Object[] values = newReferenceSlots();
+        long[] primitiveValues = newPrimitiveSlots();
+        int valuesCount = useArrayEncoding
+            ? readArray(in, values, primitiveValues)
+            : readObject(in, values, primitiveValues);
+
+        T record = createRecord(values, primitiveValues);
+        if (jfrEvent != null) {
+            JfrEvents.commitRead(jfrEvent, recordType, valuesCount);
+        }
+        if (metrics != null) {
+            metrics.recordRead(recordType, System.nanoTime() - startNanos);
+        }
+        return record;
+    }
+
+    T createRecord(Object[] values, long[] primitiveValues) {
+        Object result;
+        try {
+            result = (Object) constructor.invokeExact(values, primitiveValues);
+        } catch (Error e) {
+            // Don't wrap errors, such as StackOverflowError
+            throw e;
+        } catch (Throwable t) {
+            if (metrics != null) {
+                metrics.constructorFailed(recordType, t);
+            }
+            throw new JsonParseException("Failed creating record instance for " + recordType, t);
+        }
+        @SuppressWarnings("unchecked")
+        T record = (T) result;
+        return record;
+    }
+
+    /**
+     * Reads the component values from a JSON object, whose start has already been consumed.
+     *
+     * @return the number of JSON properties
+     */
+    private int readObject(JsonReader in, Object[] values, long[] primitiveValues) throws IOException {
+        // Tracks which components have a value, see requiredMask and requiredOverflowMasks
+        long presentMask = 0;
+        long[] presentOverflowMasks = requiredOverflowMasks == null ? null : new long[requiredOverflowMasks.length];
+        // Index of the component whose property is expected next
+        int expectedIndex = 0;
+        int orderHits = 0;
+        int orderMisses = 0;
+        while (in.hasNext()) {
+            String name = in.nextName();
+            int i;
+            if (expectedIndex < componentSerializationNames.length && name.equals(componentSerializationNames[expectedIndex])) {
+                i = expectedIndex;
+                orderHits++;
+            } else {
+                orderMisses++;
+                i = componentDeserializationNames.get(name);
+                if (i == PropertyNameLookup.NOT_FOUND) {
+                    if (allowUnknownProperties) {
+                        if (metrics != null) {
+                            metrics.unknownPropertySkipped(recordType, name);
+                        }
+                        in.skipValue();
+                        continue;
+                    }
+                    throw new JsonParseException("Unknown property '" + name + "' for " + recordType + " at JSON path " + in.getPath());
+                }
+            }
+            expectedIndex = i + 1;
+            if (skippedComponents != null && skippedComponents[i]) {
+                // Not marked as present; component gets default value below
+                in.skipValue();
+                continue;
+            }
+            RecordComponent component = components[i];
+            boolean hasValue;
+            // Shift only considers lowest 6 bits of index
+            long componentBit = 1L << i;
+            if (i < Long.SIZE) {
+                hasValue = (presentMask & componentBit) != 0;
+                presentMask |= componentBit;
+            } else {
+                int overflowIndex = i / Long.SIZE - 1;
+                hasValue = (presentOverflowMasks[overflowIndex] & componentBit) != 0;
+                presentOverflowMasks[overflowIndex] |= componentBit;
+            }
+            if (hasValue && metrics != null) {
+                metrics.duplicateComponentValue(recordType, component);
+            }
+            if (!allowDuplicateComponentValues && hasValue) {
+                // Uses component name because especially when using @SerializedName it might not be
+                // obvious why a duplicate value exists
+                throw new JsonParseException("Duplicate value for " + getComponentDisplayString(component) + " provided by property '" + name + "' at JSON path " + in.getPath());
+            }
+            if (!allowJsonNullForPrimitives && component.getType().isPrimitive() && in.peek() == JsonToken.NULL) {
+                throw new JsonParseException("JSON null is not allowed for primitive " + getComponentDisplayString(component) + " provided by property '" + name + "' at JSON path " + in.getPath());
+            }
+            readComponentValue(in, i, values, primitiveValues);
+        }
+
+        // Values of skipped components are never present, so for a projection this always assigns their default values
+        if (presentMask != requiredMask || !hasAllOverflowValues(presentOverflowMasks)) {
+            for (int i = 0; i < components.length; i++) {
+                boolean hasValue = i < Long.SIZE
+                    ? (presentMask & (1L << i)) != 0
+                    : (presentOverflowMasks[i / Long.SIZE - 1] & (1L << i)) != 0;
+                if (!hasValue && !setMissingComponentValue(i, values)) {
+                    // JSON path here refers to last property
+                    throw new JsonParseException("Missing value for " + getComponentDisplayString(components[i]) + "; last property is at JSON path " + in.getPath());
+                }
+            }
+        }
+
+        in.endObject();
+        if (propertyOrderCounter != null) {
+            propertyOrderCounter.add(orderHits, orderMisses);
+        }
+        return orderHits + orderMisses;
+    }
+
+    /**
+     * Reads the component values from a JSON array, whose start has already been consumed, in which they
+     * are identified by their position.
+     *
+     * @return the number of JSON array elements
+     */
+    private int readArray(JsonReader in, Object[] values, long[] primitiveValues) throws IOException {
+        int i = 0;
+        for (; i < components.length && in.hasNext(); i++) {
+            if (skippedComponents != null && skippedComponents[i]) {
+                in.skipValue();
+                // Always succeeds for skipped components
+                setMissingComponentValue(i, values);
+                continue;
+            }
+            RecordComponent component = components[i];
+            if (!allowJsonNullForPrimitives && component.getType().isPrimitive() && in.peek() == JsonToken.NULL) {
+                throw new JsonParseException("JSON null is not allowed for primitive " + getComponentDisplayString(component) + " provided by array element " + i + " at JSON path " + in.getPath());
+            }
+            readComponentValue(in, i, values, primitiveValues);
+        }
+        int elementsCount = i;
+
+        // Array is shorter than the number of components
+        for (; i < components.length; i++) {
+            if (!setMissingComponentValue(i, values)) {
+                throw new JsonParseException("Missing value for " + getComponentDisplayString(components[i]) + "; array has only " + elementsCount + " elements at JSON path " + in.getPath());
+            }
+        }
+
+        // Additional trailing elements are treated like unknown properties
+        while (in.hasNext()) {
+            if (!allowUnknownProperties) {
+                throw new JsonParseException("Unexpected additional array element for " + recordType + " at JSON path " + in.getPath());
+            }
+            in.skipValue();
+            if (metrics != null) {
+                metrics.unknownPropertySkipped(recordType, "[" + elementsCount + "]");
+            }
+            elementsCount++;
+        }
+        in.endArray();
+        return elementsCount;
+    }
+
+    private void readComponentValue(JsonReader in, int i, Object[] values, long[] primitiveValues) throws IOException {
+        PrimitiveKind primitiveKind = primitiveKinds[i];
+        if (primitiveKind != null) {
+            primitiveValues[slots[i]] = readPrimitiveValue(in, primitiveKind);
+        } else {
+            values[slots[i]] = readReferenceValue(in, i);
+        }
+    }
+
+    private static long readPrimitiveValue(JsonReader in, PrimitiveKind primitiveKind) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return primitiveKind.read(in);
+    }
+
+    private Object readReferenceValue(JsonReader in, int i) throws IOException {
+        Class<?> componentType = components[i].getType();
+        Object value = componentAdapters[i].read(in);
+        // Either JSON null, or user specified custom adapter for primitive type returning null
+        if (componentType.isPrimitive() && value == null) {
+            value = getPrimitiveDefaultValue(componentType);
+        } else if (internedComponents != null && internedComponents[i] && value != null) {
+            value = stringInternPool.intern((String) value);
+        }
+        return value;
+    }
+
+    /**
+     * Assigns the default value to a component for which no value has been read.
+     *
+     * @return {@code false} if a missing value is not allowed for the component
+     */
+    private boolean setMissingComponentValue(int i, Object[] values) {
+        // Skipped components always use the default value
+        boolean isSkipped = skippedComponents != null && skippedComponents[i];
+        if (metrics != null && !isSkipped) {
+            metrics.missingComponentValue(recordType, components[i]);
+        }
+        if (!allowMissingComponentValues && !isSkipped) {
+            return false;
+        }
+        // Primitive slots already have default value 0
+        Class<?> componentType = components[i].getType();
+        if (componentType.isPrimitive() && primitiveKinds[i] == null) {
+            values[slots[i]] = getPrimitiveDefaultValue(componentType);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the Records in columnar form: A JSON object with one property per component, whose value is a
+     * JSON array containing the values of that component for all Records. The property names are written
+     * regardless of whether array encoding is used.
+     *
+     * <p>A single JFR write event is emitted for all Records. Metrics are notified once per Record, see
+     * {@link #reportColumnarDuration(long, int, boolean)}.
+     */
+    void writeColumns(JsonWriter out, List<?> records) throws IOException {
+        for (Object record : records) {
+            if (record == null) {
+                throw new JsonParseException("Columnar encoding does not support null elements, for " + recordType);
+            }
+        }
+
+        Object jfrEvent = JfrEvents.beginWrite();
+        long startNanos = metrics == null ? 0 : System.nanoTime();
+        CompactJsonWriter compactWriter = out instanceof CompactJsonWriter w ? w : null;
+        // See write(...)
+        boolean writePrimitivesDirectly = out.getClass() == JsonWriter.class || compactWriter != null;
+        out.beginObject();
+        for (int i = 0; i < accessors.length; i++) {
+            writeName(out, compactWriter, i);
+            out.beginArray();
+            PrimitiveKind primitiveKind = primitiveKinds[i];
+            if (writePrimitivesDirectly && primitiveKind != null) {
+                for (Object record : records) {
+                    primitiveKind.write(out, getPrimitiveComponentValue(i, record));
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                TypeAdapter<Object> adapter = (TypeAdapter<Object>) componentAdapters[i];
+                for (Object record : records) {
+                    adapter.write(out, getComponentValue(i, record));
+                }
+            }
+            out.endArray();
+        }
+        out.endObject();
+        if (jfrEvent != null) {
+            JfrEvents.commitWrite(jfrEvent, recordType, accessors.length);
+        }
+        if (metrics != null) {
+            reportColumnarDuration(startNanos, records.size(), false);
+        }
+    }
+
+    /**
+     * Reports the duration of reading or writing Records in columnar form to the metrics. Because the
+     * component values of all Records are processed together, the duration of the individual Records is
+     * not known; instead the total duration is split evenly between them.
+     */
+    private void reportColumnarDuration(long startNanos, int recordsCount, boolean isRead) {
+        if (recordsCount == 0) {
+            return;
+        }
+        long durationNanos = (System.nanoTime() - startNanos) / recordsCount;
+        for (int i = 0; i < recordsCount; i++) {
+            if (isRead) {
+                metrics.recordRead(recordType, durationNanos);
+            } else {
+                metrics.recordWritten(recordType, durationNanos);
+            }
+        }
+    }
+
+    /**
+     * Reads Records in the columnar form written by {@link #writeColumns(JsonWriter, List)}. All columns
+     * must have the same number of values. The other settings, such as whether missing values are allowed,
+     * apply to whole columns; metrics are notified once per missing column, not once per row.
+     *
+     * <p>A single JFR read event is emitted for all Records. Metrics are notified once per Record, see
+     * {@link #reportColumnarDuration(long, int, boolean)}.
+     */
+    List<T> readColumns(JsonReader in) throws IOException {
+        Object jfrEvent = JfrEvents.beginRead();
+        long startNanos = metrics == null ? 0 : System.nanoTime();
+        // For each component the column values; only one of these arrays is used for a component, depending
+        // on whether it has a primitive kind, and the element is null if no column has been read
+        long[][] primitiveColumns = new long[components.length][];
+        Object[][] referenceColumns = new Object[components.length][];
+        // Number of values of the columns; -1 if no column has been read yet
+        int rowsCount = -1;
+        int propertiesCount = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            propertiesCount++;
+            int i = componentDeserializationNames.get(name);
+            if (i == PropertyNameLookup.NOT_FOUND) {
+                if (allowUnknownProperties) {
+                    if (metrics != null) {
+                        metrics.unknownPropertySkipped(recordType, name);
+                    }
+                    in.skipValue();
+                    continue;
+                }
+                throw new JsonParseException("Unknown property '" + name + "' for " + recordType + " at JSON path " + in.getPath());
+            }
+            if (skippedComponents != null && skippedComponents[i]) {
+                in.skipValue();
+                continue;
+            }
+            RecordComponent component = components[i];
+            boolean hasValue = primitiveColumns[i] != null || referenceColumns[i] != null;
+            if (hasValue && metrics != null) {
+                metrics.duplicateComponentValue(recordType, component);
+            }
+            if (!allowDuplicateComponentValues && hasValue) {
+                throw new JsonParseException("Duplicate value for " + getComponentDisplayString(component) + " provided by property '" + name + "' at JSON path " + in.getPath());
+            }
+            boolean isPrimitive = component.getType().isPrimitive();
+            PrimitiveKind primitiveKind = primitiveKinds[i];
+            // If the row count is already known, the column will most likely have that size
+            int initialCapacity = rowsCount == -1 ? 16 : rowsCount;
+            long[] primitiveColumn = primitiveKind == null ? null : new long[initialCapacity];
+            Object[] referenceColumn = primitiveKind == null ? new Object[initialCapacity] : null;
+            int length = 0;
+            in.beginArray();
+            while (in.hasNext()) {
+                if (!allowJsonNullForPrimitives && isPrimitive && in.peek() == JsonToken.NULL) {
+                    throw new JsonParseException("JSON null is not allowed for primitive " + getComponentDisplayString(component) + " provided by property '" + name + "' at JSON path " + in.getPath());
+                }
+                if (primitiveKind != null) {
+                    if (length == primitiveColumn.length) {
+                        primitiveColumn = Arrays.copyOf(primitiveColumn, Math.max(16, length * 2));
+                    }
+                    primitiveColumn[length] = readPrimitiveValue(in, primitiveKind);
+                } else {
+                    if (length == referenceColumn.length) {
+                        referenceColumn = Arrays.copyOf(referenceColumn, Math.max(16, length * 2));
+                    }
+                    referenceColumn[length] = readReferenceValue(in, i);
+                }
+                length++;
+            }
+            in.endArray();
+            if (rowsCount == -1) {
+                rowsCount = length;
+            } else if (length != rowsCount) {
+                throw new JsonParseException("Column for " + getComponentDisplayString(component) + " provided by property '" + name + "' has " + length + " values, but previous columns have " + rowsCount + " values; at JSON path " + in.getPath());
+            }
+            primitiveColumns[i] = primitiveColumn;
+            referenceColumns[i] = referenceColumn;
+        }
+        in.endObject();
+
+        if (rowsCount == -1) {
+            // Empty JSON object
+            rowsCount = 0;
+        }
+        List<T> records = new ArrayList<>(rowsCount);
+        if (rowsCount > 0) {
+            // Handle missing columns only once instead of for every row, so that metrics report them only once
+            Object[] missingColumnValues = newReferenceSlots();
+            for (int i = 0; i < components.length; i++) {
+                if (primitiveColumns[i] == null && referenceColumns[i] == null && !setMissingComponentValue(i, missingColumnValues)) {
+                    // JSON path here refers to the end of the object
+                    throw new JsonParseException("Missing column for " + getComponentDisplayString(components[i]) + " at JSON path " + in.getPath());
+                }
+            }
+
+            for (int row = 0; row < rowsCount; row++) {
+                Object[] values = missingColumnValues == null ? null : missingColumnValues.clone();
+                long[] primitiveValues = newPrimitiveSlots();
+                for (int i = 0; i < components.length; i++) {
+                    if (primitiveColumns[i] != null) {
+                        primitiveValues[slots[i]] = primitiveColumns[i][row];
+                    } else if (referenceColumns[i] != null) {
+                        values[slots[i]] = referenceColumns[i][row];
+                    }
+                }
+                records.add(createRecord(values, primitiveValues));
+            }
+        }
+
+        if (jfrEvent != null) {
+            JfrEvents.commitRead(jfrEvent, recordType, propertiesCount);
+        }
+        if (metrics != null) {
+            reportColumnarDuration(startNanos, rowsCount, true);
+        }
+        return records;
+    }
+
+    private boolean hasAllOverflowValues(long[] presentOverflowMasks) {
+        if (presentOverflowMasks == null) {
+            return true;
+        }
+        for (int i = 0; i < presentOverflowMasks.length; i++) {
+            if (presentOverflowMasks[i] != requiredOverflowMasks[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final Byte DEFAULT_BYTE = (byte) 0;
+    private static final Short DEFAULT_SHORT = (short) 0;
+    private static final Integer DEFAULT_INT = 0;
+    private static final Long DEFAULT_LONG = 0L;
+    private static final Float DEFAULT_FLOAT = 0f;
+    private static final Double DEFAULT_DOUBLE = 0d;
+    private static final Character DEFAULT_CHAR = '\0';
+
+    static Object getPrimitiveDefaultValue(Class<?> c) {
+        if (c == byte.class) return DEFAULT_BYTE;
+        if (c == short.class) return DEFAULT_SHORT;
+        if (c == int.class) return DEFAULT_INT;
+        if (c == long.class) return DEFAULT_LONG;
+        if (c == float.class) return DEFAULT_FLOAT;
+        if (c == double.class) return DEFAULT_DOUBLE;
+        if (c == boolean.class) return Boolean.FALSE;
+        if (c == char.class) return DEFAULT_CHAR;
+        throw new AssertionError("Not primitive: " + c);
+    }
+}
@@ -2,41 +2,35 @@ package marcono1234.gson.recordadapter;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonParseException;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializer;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
-import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
-import com.google.gson.annotations.Since;
-import com.google.gson.annotations.Until;
 import com.google.gson.reflect.TypeToken;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonToken;
-import com.google.gson.stream.JsonWriter;
 
-import java.io.IOException;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.GenericArrayType;
-import java.lang.reflect.InaccessibleObjectException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -76,15 +70,14 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
     private static final boolean DEFAULT_ALLOW_UNKNOWN_PROPERTIES = true;
     private static final boolean DEFAULT_ALLOW_DUPLICATE_COMPONENT_VALUES = false;
     private static final boolean DEFAULT_ALLOW_JSON_NULL_FOR_PRIMITIVES = false;
+    private static final boolean DEFAULT_USE_ARRAY_ENCODING = false;
+    private static final boolean DEFAULT_COLLECT_PROPERTY_ORDER_STATISTICS = false;
+    private static final boolean DEFAULT_CACHE_JSON_ADAPTER_INSTANCES = false;
     private static final RecordComponentNamingStrategy DEFAULT_NAMING_STRATEGY = RecordComponentNamingStrategy.IDENTITY;
     private static final JsonAdapterCreator DEFAULT_JSON_ADAPTER_CREATOR = JsonAdapterCreator.DEFAULT_CONSTRUCTOR_INVOKER;
-
-    // These annotations are not supported because this adapter factory cannot access Gson's exclusion logic
-    private static final List<Class<? extends Annotation>> UNSUPPORTED_FIELD_ANNOTATIONS = List.of(
-        Expose.class,
-        Since.class,
-        Until.class
-    );
+    private static final RecordAdapterMetrics DEFAULT_METRICS = null;
+    private static final String DEFAULT_DISCRIMINATOR_NAME = null;
+    private static final int DEFAULT_STRING_INTERN_POOL_MAX_SIZE = StringInternPool.DEFAULT_MAX_SIZE;
 
     /**
      * Default instance of this factory. This instance
@@ -96,9 +89,17 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
      *          however duplicate unknown JSON properties are allowed
      *     </li>
      *     <li>does not allow JSON null for Record components of primitive types (see also {@link Builder#allowJsonNullForPrimitiveComponents() allowJsonNullForPrimitiveComponents()})</li>
+     *     <li>represents Records as JSON objects (see also {@link Builder#useArrayEncoding() useArrayEncoding()})</li>
      *     <li>uses {@link RecordComponentNamingStrategy#IDENTITY}, that means JSON property names will be the same as
      *          the Record component names</li>
      *     <li>uses only {@link JsonAdapterCreator#DEFAULT_CONSTRUCTOR_INVOKER} as adapter creator</li>
+     *     <li>does not cache adapter instances created for {@code @JsonAdapter} (see also {@link Builder#cacheJsonAdapterInstances() cacheJsonAdapterInstances()})</li>
+     *     <li>does not collect property order statistics (see also {@link Builder#collectPropertyOrderStatistics() collectPropertyOrderStatistics()})</li>
+     *     <li>does not report metrics (see also {@link Builder#withMetrics(RecordAdapterMetrics) withMetrics(...)})</li>
+     *     <li>deserializes all Record components (see also {@link Builder#withProjection(Class, Set) withProjection(...)})</li>
+     *     <li>does not handle {@code List}s and arrays of Records (see also {@link Builder#useColumnarEncoding(Class) useColumnarEncoding(...)})</li>
+     *     <li>does not handle sealed interfaces (see also {@link Builder#handleSealedInterfaces(String) handleSealedInterfaces(...)})</li>
+     *     <li>does not deduplicate deserialized String component values (see also {@link Builder#internStrings(Class, Set) internStrings(...)})</li>
      * </ul>
      *
      * @see #builder()
@@ -120,8 +121,17 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
             DEFAULT_ALLOW_UNKNOWN_PROPERTIES,
             DEFAULT_ALLOW_DUPLICATE_COMPONENT_VALUES,
             DEFAULT_ALLOW_JSON_NULL_FOR_PRIMITIVES,
+            DEFAULT_USE_ARRAY_ENCODING,
+            DEFAULT_COLLECT_PROPERTY_ORDER_STATISTICS,
+            DEFAULT_CACHE_JSON_ADAPTER_INSTANCES,
             DEFAULT_NAMING_STRATEGY,
-            List.of(DEFAULT_JSON_ADAPTER_CREATOR)
+            List.of(DEFAULT_JSON_ADAPTER_CREATOR),
+            DEFAULT_METRICS,
+            Map.of(),
+            Set.of(),
+            DEFAULT_DISCRIMINATOR_NAME,
+            Map.of(),
+            DEFAULT_STRING_INTERN_POOL_MAX_SIZE
         );
     }
 
@@ -136,8 +146,17 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
         private boolean allowUnknownProperties = DEFAULT_ALLOW_UNKNOWN_PROPERTIES;
         private boolean allowDuplicateComponentValues = DEFAULT_ALLOW_DUPLICATE_COMPONENT_VALUES;
         private boolean allowJsonNullForPrimitives = DEFAULT_ALLOW_JSON_NULL_FOR_PRIMITIVES;
+        private boolean useArrayEncoding = DEFAULT_USE_ARRAY_ENCODING;
+        private boolean collectPropertyOrderStatistics = DEFAULT_COLLECT_PROPERTY_ORDER_STATISTICS;
+        private boolean cacheJsonAdapterInstances = DEFAULT_CACHE_JSON_ADAPTER_INSTANCES;
         private RecordComponentNamingStrategy namingStrategy = DEFAULT_NAMING_STRATEGY;
         private final List<JsonAdapterCreator> jsonAdapterCreators;
+        private RecordAdapterMetrics metrics = DEFAULT_METRICS;
+        private final Map<Class<?>, Set<String>> projections = new HashMap<>();
+        private final Set<Class<?>> columnarRecordClasses = new HashSet<>();
+        private String discriminatorName = DEFAULT_DISCRIMINATOR_NAME;
+        private final Map<Class<?>, Set<String>> internedComponents = new HashMap<>();
+        private int stringInternPoolMaxSize = DEFAULT_STRING_INTERN_POOL_MAX_SIZE;
 
         private Builder() {
             jsonAdapterCreators = new ArrayList<>();
@@ -258,6 +277,49 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
             return this;
         }
 
+        /**
+         * Configures the {@code RecordTypeAdapterFactory} to represent Records as JSON arrays instead of
+         * JSON objects. The array contains the component values in component order, which is the order of
+         * the parameters of the canonical constructor, for example {@code [1,"x",true]}. During deserialization
+         * the values are identified by their position in the array. Because no property names are written
+         * this reduces the size of the JSON data and avoids looking up components by name, however the data
+         * can only be deserialized correctly if the order of the components has not changed. This is mainly
+         * useful when the JSON data is only exchanged between applications using the same Record classes.
+         *
+         * <p>The encoding applies to all Records handled by the factory, including nested ones. Component
+         * values are otherwise serialized and deserialized as usual, for example using the adapter specified
+         * by {@link JsonAdapter @JsonAdapter}. {@link SerializedName @SerializedName} and the
+         * {@linkplain #withComponentNamingStrategy(RecordComponentNamingStrategy) naming strategy} have no
+         * effect, and {@code null} component values are always written as JSON null. An array with fewer
+         * elements than components is only allowed if {@link #allowMissingComponentValues()} has been called;
+         * additional trailing elements are treated like unknown properties, see {@link #disallowUnknownProperties()}.
+         * No {@linkplain #collectPropertyOrderStatistics() property order statistics} are collected.
+         *
+         * <p>By default Records are represented as JSON objects.
+         *
+         * @return <i>this</i>
+         */
+        public Builder useArrayEncoding() {
+            useArrayEncoding = true;
+            return this;
+        }
+
+        /**
+         * Configures the {@code RecordTypeAdapterFactory} to collect statistics about whether JSON properties
+         * appear in Record component order during deserialization. The statistics can be obtained using
+         * {@link RecordTypeAdapterFactory#getPropertyOrderStatistics(Class)}. This can be useful to verify
+         * that the JSON data benefits from the optimization for properties in component order, see
+         * {@link PropertyOrderStatistics} for details.
+         *
+         * <p>By default no statistics are collected.
+         *
+         * @return <i>this</i>
+         */
+        public Builder collectPropertyOrderStatistics() {
+            collectPropertyOrderStatistics = true;
+            return this;
+        }
+
         /**
          * Specifies the naming strategy the {@code RecordTypeAdapterFactory} should use for all Record
          * components which are not annotated with {@link SerializedName @SerializedName}.
@@ -298,6 +360,218 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
             return this;
         }
 
+        /**
+         * Configures the {@code RecordTypeAdapterFactory} to cache the adapter instances which the registered
+         * {@linkplain #registerJsonAdapterCreator(JsonAdapterCreator) adapter creators} create for classes
+         * referenced by {@link JsonAdapter @JsonAdapter}. The same instance will then be used for all components
+         * referencing the same adapter class, in all Records and for all {@code Gson} instances the factory is
+         * used with, instead of creating a new instance for every component. This reduces the time needed for
+         * creating Record type adapters when the same adapter class is referenced by many components.
+         *
+         * <p>This should only be used if all adapter classes referenced by {@code @JsonAdapter} are stateless,
+         * or at least do not depend on being used for a single component only.
+         *
+         * <p>By default adapter instances are not cached.
+         *
+         * @return <i>this</i>
+         */
+        public Builder cacheJsonAdapterInstances() {
+            cacheJsonAdapterInstances = true;
+            return this;
+        }
+
+        /**
+         * Specifies the listener which the {@code RecordTypeAdapterFactory} should notify about metrics
+         * of the serialization and deserialization of Record classes. The listener is shared by all type
+         * adapters created by the factory. Specifying {@code null} removes a previously specified listener.
+         *
+         * <p>By default no metrics are reported, and the type adapters do not have any overhead for
+         * measuring them.
+         *
+         * @param metrics
+         *      the metrics listener, or {@code null}
+         * @return <i>this</i>
+         */
+        public Builder withMetrics(RecordAdapterMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Configures the {@code RecordTypeAdapterFactory} to only deserialize the specified components of
+         * the given Record class. JSON properties for all other components are skipped without being parsed
+         * into Java objects, and those components are set to their default value ({@code 0}, {@code false} or
+         * {@code null}), similar to {@link #allowMissingComponentValues()}. This can considerably reduce
+         * the deserialization time and memory usage when only a few components of a Record with many
+         * components, or with components with large values, are needed.
+         *
+         * <p>For the specified components the other settings of the factory apply as usual; for example
+         * missing values for them are only allowed if {@code allowMissingComponentValues()} has been called.
+         * Serialization is not affected by the projection. Calling this method again for the same Record
+         * class replaces the previous projection.
+         *
+         * <p>By default all components are deserialized.
+         *
+         * @param recordClass
+         *      the Record class for which the projection should be used
+         * @param componentNames
+         *      names of the Record components (not the JSON property names) which should be deserialized
+         * @return <i>this</i>
+         * @throws IllegalArgumentException
+         *      If {@code recordClass} is not a Record class, or if it has no component with one of
+         *      the specified names
+         */
+        public Builder withProjection(Class<? extends Record> recordClass, Set<String> componentNames) {
+            if (!recordClass.isRecord()) {
+                throw new IllegalArgumentException("Not a Record class: " + recordClass.getName());
+            }
+            // Copy to not be affected by subsequent modifications; also performs null check
+            Set<String> componentNamesCopy = Set.copyOf(componentNames);
+            Set<String> unknownNames = new LinkedHashSet<>(componentNamesCopy);
+            for (RecordComponent component : recordClass.getRecordComponents()) {
+                unknownNames.remove(component.getName());
+            }
+            if (!unknownNames.isEmpty()) {
+                throw new IllegalArgumentException("Record class " + recordClass.getName() + " does not have components " + unknownNames);
+            }
+            projections.put(recordClass, componentNamesCopy);
+            return this;
+        }
+
+        /**
+         * Configures the {@code RecordTypeAdapterFactory} to use columnar encoding for {@code List}s and arrays
+         * of the given Record class. Instead of a JSON array containing one JSON object per Record, a single JSON
+         * object is used which has one property per component, whose value is a JSON array containing the values
+         * of that component for all Records. For example the list {@code [new Point(1, 2), new Point(3, 4)]}
+         * is represented as {@code {"x":[1,3],"y":[2,4]}} instead of {@code [{"x":1,"y":2},{"x":3,"y":4}]}.
+         * Because the property names are only written once, this reduces the size of the JSON data for large
+         * lists, and the JSON data can usually be compressed better.
+         *
+         * <p>The factory handles the types {@code List<R>} and {@code R[]}, where {@code R} is the Record class,
+         * but not other collection types. The Records are converted using the Record type adapter of this
+         * factory, regardless of any other adapter registered with {@code Gson} for the Record class. The other
+         * settings of the factory apply to whole columns, for example {@link #allowMissingComponentValues()}
+         * allows missing columns; all columns must have the same number of values. The lists or arrays must
+         * not contain {@code null} elements. Property names are used for the columns even if
+         * {@link #useArrayEncoding()} is used.
+         *
+         * <p>By default {@code List}s and arrays of Records are not handled by the factory, and are therefore
+         * serialized as JSON arrays by Gson.
+         *
+         * @param recordClass
+         *      the Record class for which columnar encoding should be used
+         * @return <i>this</i>
+         * @throws IllegalArgumentException
+         *      If {@code recordClass} is not a Record class
+         */
+        public Builder useColumnarEncoding(Class<? extends Record> recordClass) {
+            if (!recordClass.isRecord()) {
+                throw new IllegalArgumentException("Not a Record class: " + recordClass.getName());
+            }
+            columnarRecordClasses.add(recordClass);
+            return this;
+        }
+
+        /**
+         * Configures the {@code RecordTypeAdapterFactory} to handle sealed interfaces whose permitted subclasses
+         * are Record classes. The Record class of a value is identified by a discriminator, which is the
+         * {@linkplain Class#getSimpleName() simple name} of the Record class. It is written as JSON property
+         * with the given name, or as first element of the JSON array if {@link #useArrayEncoding()} is used.
+         * Permitted subclasses may also be sealed interfaces themselves, in which case their Record subclasses
+         * are handled as well.
+         *
+         * <p>The discriminator is always written as first property. During deserialization it is expected
+         * to be the first property as well, in which case the remaining properties are directly read by the
+         * Record type adapter. Otherwise the JSON object is first read as {@link com.google.gson.JsonObject} to
+         * find the discriminator, which is less efficient.
+         *
+         * <p>The Record classes are converted using the Record type adapters of this factory, regardless of
+         * any other adapter registered with {@code Gson} for them. Generic Record classes are handled as
+         * raw types. The factory fails creating the adapter if multiple Record classes have the same simple
+         * name, or if the property name of a component clashes with the discriminator property name
+         * (unless array encoding is used).
+         * Sealed interfaces with permitted subclasses which are neither Records nor sealed interfaces are
+         * not handled by the factory.
+         *
+         * <p>By default sealed interfaces are not handled by the factory.
+         *
+         * @param discriminatorPropertyName
+         *      name of the JSON property containing the discriminator
+         * @return <i>this</i>
+         */
+        public Builder handleSealedInterfaces(String discriminatorPropertyName) {
+            discriminatorName = Objects.requireNonNull(discriminatorPropertyName);
+            return this;
+        }
+
+        /**
+         * Configures the {@code RecordTypeAdapterFactory} to deduplicate the deserialized values of the specified
+         * {@code String} components of the given Record class. Equal values are replaced with the same
+         * {@code String} instance from a pool, so that the deserialized Records do not retain separate copies
+         * of them. This can considerably reduce the memory usage when many Records are kept in memory and the
+         * components only have a small number of distinct values, for example country codes or status names.
+         * Each value is still read from the JSON data, only the separate copies become garbage.
+         *
+         * <p>The pool is shared by all components and Record classes handled by the factory, and is safe to
+         * be used concurrently. Its maximum size is configured with {@link #stringInternPoolMaxSize(int)};
+         * when it is reached, a string which has not been used recently is evicted from the pool. Therefore
+         * only components with a small number of distinct values should use the pool, otherwise the strings
+         * are frequently evicted.
+         * Statistics of the pool can be obtained with {@link RecordTypeAdapterFactory#getStringInternPoolStatistics()}.
+         * Values created by custom adapters, for example specified with {@link JsonAdapter}, are deduplicated
+         * as well. Calling this method again for the same Record class replaces the previously specified
+         * components.
+         *
+         * <p>By default String component values are not deduplicated.
+         *
+         * @param recordClass
+         *      the Record class whose component values should be deduplicated
+         * @param componentNames
+         *      names of the Record components (not the JSON property names) whose values should be deduplicated
+         * @return <i>this</i>
+         * @throws IllegalArgumentException
+         *      If {@code recordClass} is not a Record class, if it has no component with one of the
+         *      specified names, or if one of the components is not of type {@code String}
+         */
+        public Builder internStrings(Class<? extends Record> recordClass, Set<String> componentNames) {
+            if (!recordClass.isRecord()) {
+                throw new IllegalArgumentException("Not a Record class: " + recordClass.getName());
+            }
+            // Copy to not be affected by subsequent modifications; also performs null check
+            Set<String> componentNamesCopy = Set.copyOf(componentNames);
+            Set<String> unknownNames = new LinkedHashSet<>(componentNamesCopy);
+            for (RecordComponent component : recordClass.getRecordComponents()) {
+                if (unknownNames.remove(component.getName()) && component.getType() != String.class) {
+                    throw new IllegalArgumentException("Component " + getComponentDisplayString(component) + " is not of type String");
+                }
+            }
+            if (!unknownNames.isEmpty()) {
+                throw new IllegalArgumentException("Record class " + recordClass.getName() + " does not have components " + unknownNames);
+            }
+            internedComponents.put(recordClass, componentNamesCopy);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of strings in the pool used for deduplicating String component values,
+         * see {@link #internStrings(Class, Set)}. Each factory has its own pool.
+         *
+         * <p>By default the maximum size is 4096.
+         *
+         * @param maxSize
+         *      the maximum number of strings in the pool
+         * @return <i>this</i>
+         * @throws IllegalArgumentException
+         *      If {@code maxSize} is not positive
+         */
+        public Builder stringInternPoolMaxSize(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("Max size must be positive: " + maxSize);
+            }
+            stringInternPoolMaxSize = maxSize;
+            return this;
+        }
+
         /**
          * Creates a {@code RecordTypeAdapterFactory} using the current configuration of this
          * builder.
@@ -316,8 +590,17 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
                 allowUnknownProperties,
                 allowDuplicateComponentValues,
                 allowJsonNullForPrimitives,
+                useArrayEncoding,
+                collectPropertyOrderStatistics,
+                cacheJsonAdapterInstances,
                 namingStrategy,
-                jsonAdapterCreators
+                jsonAdapterCreators,
+                metrics,
+                Map.copyOf(projections),
+                Set.copyOf(columnarRecordClasses),
+                discriminatorName,
+                Map.copyOf(internedComponents),
+                stringInternPoolMaxSize
             );
         }
     }
@@ -339,8 +622,25 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
     private final boolean allowUnknownProperties;
     private final boolean allowDuplicateComponentValues;
     private final boolean allowJsonNullForPrimitives;
+    private final boolean useArrayEncoding;
+    /** Counters per Record class; {@code null} if statistics are not collected */
+    private final Map<Class<?>, RecordTypeAdapter.PropertyOrderCounter> propertyOrderCounters;
     private final RecordComponentNamingStrategy namingStrategy;
     private final List<JsonAdapterCreator> jsonAdapterCreators;
+    /** Cached adapter instances per adapter class; {@code null} if instances are not cached */
+    private final Map<Class<?>, CreatedJsonAdapter> jsonAdapterInstances;
+    /** {@code null} if no metrics are reported */
+    private final RecordAdapterMetrics metrics;
+    /** Names of the components to deserialize, per Record class */
+    private final Map<Class<?>, Set<String>> projections;
+    /** Record classes for which {@code List}s and arrays are handled using columnar encoding */
+    private final Set<Class<?>> columnarRecordClasses;
+    /** Name of the discriminator property for sealed interfaces; {@code null} if they are not handled */
+    private final String discriminatorName;
+    /** Names of the components whose values are deduplicated, per Record class */
+    private final Map<Class<?>, Set<String>> internedComponentNames;
+    /** {@code null} if no component values are deduplicated */
+    private final StringInternPool stringInternPool;
 
     private RecordTypeAdapterFactory(
         boolean serializeRuntimeComponentTypes,
@@ -348,51 +648,46 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
         boolean allowUnknownProperties,
         boolean allowDuplicateComponentValues,
         boolean allowJsonNullForPrimitives,
+        boolean useArrayEncoding,
+        boolean collectPropertyOrderStatistics,
+        boolean cacheJsonAdapterInstances,
         RecordComponentNamingStrategy namingStrategy,
-        List<JsonAdapterCreator> jsonAdapterCreators
+        List<JsonAdapterCreator> jsonAdapterCreators,
+        RecordAdapterMetrics metrics,
+        Map<Class<?>, Set<String>> projections,
+        Set<Class<?>> columnarRecordClasses,
+        String discriminatorName,
+        Map<Class<?>, Set<String>> internedComponentNames,
+        int stringInternPoolMaxSize
     ) {
         this.serializeRuntimeComponentTypes = serializeRuntimeComponentTypes;
         this.allowMissingComponentValues = allowMissingComponentValues;
         this.allowUnknownProperties = allowUnknownProperties;
         this.allowDuplicateComponentValues = allowDuplicateComponentValues;
         this.allowJsonNullForPrimitives = allowJsonNullForPrimitives;
+        this.useArrayEncoding = useArrayEncoding;
+        this.propertyOrderCounters = collectPropertyOrderStatistics ? new ConcurrentHashMap<>() : null;
         this.namingStrategy = namingStrategy;
         this.jsonAdapterCreators = jsonAdapterCreators;
+        this.jsonAdapterInstances = cacheJsonAdapterInstances ? new ConcurrentHashMap<>() : null;
+        this.metrics = metrics;
+        this.projections = projections;
+        this.columnarRecordClasses = columnarRecordClasses;
+        this.discriminatorName = discriminatorName;
+        this.internedComponentNames = internedComponentNames;
+        this.stringInternPool = internedComponentNames.isEmpty() ? null : new StringInternPool(stringInternPoolMaxSize);
         assert !jsonAdapterCreators.isEmpty();
     }
 
-    private static Field getComponentField(RecordComponent component) throws RecordTypeAdapterException {
-        try {
-            return component.getDeclaringRecord().getDeclaredField(component.getName());
-        } catch (NoSuchFieldException e) {
-            throw new RecordTypeAdapterException("Unexpected: Failed finding component field for " + component);
-        }
-    }
-
     private record ComponentNames(String serializationName, Set<String> deserializationNames) { }
 
-    private ComponentNames getComponentNames(RecordComponent component) throws RecordTypeAdapterException {
-        // SerializedName is not applicable to RECORD_COMPONENT, but according to the JLS because it is applicable
-        // to METHOD and FIELD it is propagated to the members, see https://docs.oracle.com/javase/specs/jls/se17/html/jls-8.html#jls-8.10.1
-        // However, accessor method can be overridden in which case annotation is not propagated, so have to
-        // get it from private component field
-        SerializedName serializedName = getComponentField(component).getAnnotation(SerializedName.class);
-        SerializedName accessorSerializedName = component.getAccessor().getAnnotation(SerializedName.class);
+    private ComponentNames getComponentNames(RecordComponent component, SerializedName serializedName) throws RecordTypeAdapterException {
         if (serializedName == null) {
-            if (accessorSerializedName != null) {
-                throw new RecordTypeAdapterException("@SerializedName on accessor method is not supported; place it on the corresponding record component instead");
-            }
-
             String name = Objects.requireNonNull(namingStrategy.translateName(component));
             // Set.of performs the null check
             return new ComponentNames(name, Set.of(name));
         }
 
-        // Detect mismatching annotation on custom accessor
-        if (accessorSerializedName != null && !serializedName.equals(accessorSerializedName)) {
-            throw new RecordTypeAdapterException("Using different @SerializedName on accessor than on corresponding record component is not supported");
-        }
-
         String name = serializedName.value();
         String[] alternates = serializedName.alternate();
         if (alternates.length == 0) {
@@ -426,25 +721,22 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
     }
 
     // Matches behavior of com.google.gson.internal.bind.ReflectiveTypeAdapterFactory.createBoundField
-    private TypeAdapter<?> getAdapter(RecordComponent component, Type componentType, Gson gson) throws RecordTypeAdapterException {
+    private TypeAdapter<?> getAdapter(RecordMetadata metadata, int componentIndex, Type componentType, Gson gson, Set<JsonAdapterCreator> usedAdapterCreators) throws RecordTypeAdapterException {
+        RecordComponent component = metadata.components[componentIndex];
         TypeToken<?> componentTypeToken = TypeToken.get(componentType);
-        Field componentField = getComponentField(component);
-        var unsupportedFieldAnnotations = UNSUPPORTED_FIELD_ANNOTATIONS.stream()
-            .filter(componentField::isAnnotationPresent)
-            .toList();
-
+        List<Class<? extends Annotation>> unsupportedFieldAnnotations = metadata.unsupportedAnnotations.get(componentIndex);
         if (!unsupportedFieldAnnotations.isEmpty()) {
             String annotationsList = unsupportedFieldAnnotations.stream().map(c -> "@" + c.getSimpleName()).collect(Collectors.joining(", "));
             throw new RecordTypeAdapterException("Unsupported annotations on component " + getComponentDisplayString(component) + ": " + annotationsList);
         }
 
-        // @JsonAdapter only has FIELD as target, so need to get annotation from component field
-        JsonAdapter jsonAdapterAnnotation = componentField.getAnnotation(JsonAdapter.class);
+        JsonAdapter jsonAdapterAnnotation = metadata.jsonAdapterAnnotations[componentIndex];
         if (jsonAdapterAnnotation == null) {
             TypeAdapter<?> adapter = gson.getAdapter(componentTypeToken);
             // Only create runtime type type adapter if no JsonAdapter annotation exists, matching behavior
             // of Gson's ReflectiveTypeAdapterFactory
-            if (serializeRuntimeComponentTypes && needsRuntimeTypeTypeAdapter(componentType)) {
+            // Sealed type adapter already considers runtime type, and writes the discriminator
+            if (serializeRuntimeComponentTypes && needsRuntimeTypeTypeAdapter(componentType) && getSealedRecordSubclasses(component.getType()) == null) {
                 return new RuntimeTypeTypeAdapter<>(gson, adapter);
             } else {
                 return adapter;
@@ -452,27 +744,21 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
         }
 
         Class<?> adapterType = jsonAdapterAnnotation.value();
-        JsonAdapterCreator usedAdapterCreator = null;
-        Object adapter = null;
-        for (JsonAdapterCreator adapterCreator : jsonAdapterCreators) {
-            Optional<Object> optAdapter;
-            try {
-                optAdapter = adapterCreator.create(adapterType);
-            } catch (JsonAdapterCreator.AdapterCreationException e) {
-                throw new RecordTypeAdapterException("Creator " + adapterCreator + " failed creating instance of adapter " + adapterType + " for " + getComponentDisplayString(component), e);
-            }
-            if (optAdapter.isPresent()) {
-                adapter = optAdapter.get();
-                usedAdapterCreator = adapterCreator;
-                break;
+        CreatedJsonAdapter createdAdapter;
+        if (jsonAdapterInstances == null) {
+            createdAdapter = createJsonAdapter(adapterType, component);
+        } else {
+            createdAdapter = jsonAdapterInstances.get(adapterType);
+            if (createdAdapter == null) {
+                // Not using computeIfAbsent to not block other threads while creator is running; if multiple
+                // threads create an instance concurrently, all of them use the one which was cached first
+                CreatedJsonAdapter newAdapter = createJsonAdapter(adapterType, component);
+                createdAdapter = Objects.requireNonNullElse(jsonAdapterInstances.putIfAbsent(adapterType, newAdapter), newAdapter);
             }
         }
-        if (usedAdapterCreator == null) {
-            String creatorsString = jsonAdapterCreators.stream()
-                .map(Object::toString)
-                .collect(Collectors.joining(", "));
-            throw new RecordTypeAdapterException("None of the creators can create an instance of adapter " + adapterType + " for " + getComponentDisplayString(component) + "; registered creators: " + creatorsString);
-        }
+        Object adapter = createdAdapter.adapter();
+        JsonAdapterCreator usedAdapterCreator = createdAdapter.creator();
+        usedAdapterCreators.add(usedAdapterCreator);
 
         TypeAdapter<?> typeAdapter;
         if (adapter instanceof TypeAdapter) {
@@ -497,7 +783,28 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
         return jsonAdapterAnnotation.nullSafe() ? typeAdapter.nullSafe() : typeAdapter;
     }
 
-    private static String getComponentDisplayString(RecordComponent component) {
+    private record CreatedJsonAdapter(Object adapter, JsonAdapterCreator creator) { }
+
+    private CreatedJsonAdapter createJsonAdapter(Class<?> adapterType, RecordComponent component) throws RecordTypeAdapterException {
+        for (JsonAdapterCreator adapterCreator : jsonAdapterCreators) {
+            Optional<Object> optAdapter;
+            try {
+                optAdapter = adapterCreator.create(adapterType);
+            } catch (JsonAdapterCreator.AdapterCreationException e) {
+                throw new RecordTypeAdapterException("Creator " + adapterCreator + " failed creating instance of adapter " + adapterType + " for " + getComponentDisplayString(component), e);
+            }
+            if (optAdapter.isPresent()) {
+                return new CreatedJsonAdapter(optAdapter.get(), adapterCreator);
+            }
+        }
+
+        String creatorsString = jsonAdapterCreators.stream()
+            .map(Object::toString)
+            .collect(Collectors.joining(", "));
+        throw new RecordTypeAdapterException("None of the creators can create an instance of adapter " + adapterType + " for " + getComponentDisplayString(component) + "; registered creators: " + creatorsString);
+    }
+
+    static String getComponentDisplayString(RecordComponent component) {
         return component.getDeclaringRecord().getName() + "." + component.getName();
     }
 
@@ -512,31 +819,23 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
     public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) throws RecordTypeAdapterException {
         Class<?> rawType = type.getRawType();
         if (!rawType.isRecord()) {
-            return null;
+            if (discriminatorName != null && rawType.isSealed()) {
+                return createSealedAdapter(gson, rawType);
+            }
+            return columnarRecordClasses.isEmpty() ? null : createColumnarAdapter(gson, type);
         }
 
-        RecordComponent[] components = rawType.getRecordComponents();
-        Constructor<?> constructor = getCanonicalConstructor(rawType, components);
+        Object jfrEvent = JfrEvents.beginAdapterCreation();
+        RecordMetadata metadata = RecordMetadata.get(rawType);
+        RecordComponent[] components = metadata.components;
 
-        Type[] componentTypes = new Type[components.length];
-        Method[] accessors = new Method[components.length];
+        MethodHandle[] accessors = new MethodHandle[components.length];
         String[] componentSerializationNames = new String[components.length];
         Map<String, Integer> componentDeserializationNames = new HashMap<>();
         TypeAdapter<?>[] componentAdapters = new TypeAdapter<?>[components.length];
         for (int i = 0; i < components.length; i++) {
             RecordComponent component = components[i];
-            componentTypes[i] = component.getGenericType();
-            Method accessor = component.getAccessor();
-            try {
-                accessor.setAccessible(true);
-            } catch (InaccessibleObjectException e) {
-                // Should be impossible because getting canonical constructor would already have thrown
-                // InaccessibleObjectException, but throw descriptive exception here nonetheless
-                throw new RecordTypeAdapterException("Cannot access accessor method for " + getComponentDisplayString(component) + "; either change the visibility of the record class to `public` or open it to this library", e);
-            }
-            accessors[i] = accessor;
-
-            ComponentNames componentNames = getComponentNames(component);
+            ComponentNames componentNames = getComponentNames(component, metadata.serializedNames[i]);
             String serializationName = componentNames.serializationName;
             for (int j = 0; j < i; j++) {
                 if (componentSerializationNames[j].equals(serializationName)) {
@@ -551,148 +850,287 @@ public class RecordTypeAdapterFactory implements TypeAdapterFactory {
             }
         }
 
-        componentTypes = ComponentTypeHelper.resolveComponentTypes(type, componentTypes);
+        Type[] componentTypes = metadata.resolvedTypesCache.resolve(type);
+        Set<JsonAdapterCreator> usedAdapterCreators = new LinkedHashSet<>();
         for (int i = 0; i < components.length; i++) {
-            componentAdapters[i] = getAdapter(components[i], componentTypes[i], gson);
+            componentAdapters[i] = getAdapter(metadata, i, componentTypes[i], gson, usedAdapterCreators);
         }
 
-        return new TypeAdapter<>() {
-            @Override
-            public void write(JsonWriter out, T value) throws IOException {
-                if (value == null) {
-                    out.nullValue();
-                    return;
-                }
+        // Use unboxed slots and accessors for primitive components using Gson's built-in adapter
+        PrimitiveKind[] primitiveKinds = new PrimitiveKind[components.length];
+        MethodHandle[] primitiveAccessors = new MethodHandle[components.length];
+        int[] slots = new int[components.length];
+        int referenceSlotsCount = 0;
+        int primitiveSlotsCount = 0;
+        for (int i = 0; i < components.length; i++) {
+            Class<?> componentRawType = components[i].getType();
+            PrimitiveKind primitiveKind = componentRawType.isPrimitive() ? PrimitiveKind.forBuiltInAdapter(componentRawType, componentAdapters[i]) : null;
+            primitiveKinds[i] = primitiveKind;
+            if (primitiveKind == null) {
+                slots[i] = referenceSlotsCount++;
+            } else {
+                slots[i] = primitiveSlotsCount++;
+                primitiveAccessors[i] = MethodHandles.filterReturnValue(metadata.accessors[i], primitiveKind.toSlot())
+                    // Adapt type to allow calling handle with invokeExact
+                    .asType(MethodType.methodType(long.class, Object.class));
+            }
+            // Adapt type to allow calling handle with invokeExact
+            accessors[i] = metadata.accessors[i].asType(MethodType.methodType(Object.class, Object.class));
+        }
 
-                out.beginObject();
-                for (int i = 0; i < accessors.length; i++) {
-                    Object componentValue;
-                    try {
-                        // Use accessor instead of underlying field because accessor is public but underlying
-                        // field is private; additionally accessor might transform result
-                        componentValue = accessors[i].invoke(value);
-                    } catch (IllegalAccessException | IllegalArgumentException | NullPointerException e) {
-                        // TODO: Gson has no well fitting exception class?
-                        throw new JsonParseException("Failed getting component value", e);
-                    } catch (InvocationTargetException e) {
-                        // TODO: Gson has no well fitting exception class?
-                        throw new JsonParseException("Failed getting component value", e.getCause());
-                    }
-
-                    out.name(componentSerializationNames[i]);
-                    @SuppressWarnings("unchecked")
-                    TypeAdapter<Object> adapter = (TypeAdapter<Object>) componentAdapters[i];
-                    adapter.write(out, componentValue);
-                }
-                out.endObject();
+        Set<String> projection = projections.get(rawType);
+        boolean[] skippedComponents = null;
+        if (projection != null) {
+            skippedComponents = new boolean[components.length];
+            for (int i = 0; i < components.length; i++) {
+                skippedComponents[i] = !projection.contains(components[i].getName());
             }
+        }
 
-            @Override
-            public T read(JsonReader in) throws IOException {
-                if (in.peek() == JsonToken.NULL) {
-                    in.skipValue();
-                    return null;
-                }
+        Set<String> internedNames = internedComponentNames.get(rawType);
+        boolean[] internedComponents = null;
+        if (internedNames != null) {
+            internedComponents = new boolean[components.length];
+            for (int i = 0; i < components.length; i++) {
+                internedComponents[i] = internedNames.contains(components[i].getName());
+            }
+        }
 
-                Object[] values = new Object[components.length];
-                boolean[] hasValue = new boolean[values.length];
-                in.beginObject();
-                while (in.hasNext()) {
-                    String name = in.nextName();
-                    Integer i = componentDeserializationNames.get(name);
-                    if (i == null) {
-                        if (allowUnknownProperties) {
-                            in.skipValue();
-                            continue;
-                        }
-                        throw new JsonParseException("Unknown property '" + name + "' for " + rawType + " at JSON path " + in.getPath());
-                    }
-                    RecordComponent component = components[i];
-                    if (!allowDuplicateComponentValues && hasValue[i]) {
-                        // Uses component name because especially when using @SerializedName it might not be
-                        // obvious why a duplicate value exists
-                        throw new JsonParseException("Duplicate value for " + getComponentDisplayString(component) + " provided by property '" + name + "' at JSON path " + in.getPath());
-                    }
-                    Class<?> componentType = component.getType();
-                    boolean isPrimitive = componentType.isPrimitive();
-                    if (!allowJsonNullForPrimitives && isPrimitive && in.peek() == JsonToken.NULL) {
-                        throw new JsonParseException("JSON null is not allowed for primitive " + getComponentDisplayString(component) + " provided by property '" + name + "' at JSON path " + in.getPath());
-                    }
-                    Object value = componentAdapters[i].read(in);
-                    // Either JSON null, or user specified custom adapter for primitive type returning null
-                    if (isPrimitive && value == null) {
-                        value = getPrimitiveDefaultValue(componentType);
-                    }
-                    values[i] = value;
-                    hasValue[i] = true;
-                }
+        RecordTypeAdapter<T> adapter = new RecordTypeAdapter<>(
+            rawType.asSubclass(Record.class),
+            components,
+            accessors,
+            primitiveAccessors,
+            componentSerializationNames,
+            PropertyNameLookup.create(componentDeserializationNames),
+            componentAdapters,
+            primitiveKinds,
+            slots,
+            getConstructorHandle(metadata.constructor, primitiveKinds, slots),
+            allowMissingComponentValues,
+            allowUnknownProperties,
+            allowDuplicateComponentValues,
+            allowJsonNullForPrimitives,
+            useArrayEncoding,
+            skippedComponents,
+            internedComponents,
+            stringInternPool,
+            // Adapters for the same Record class, e.g. for different Gson instances, share the counter
+            propertyOrderCounters == null ? null : propertyOrderCounters.computeIfAbsent(rawType, k -> new RecordTypeAdapter.PropertyOrderCounter()),
+            metrics
+        );
 
-                for (int i = 0; i < components.length; i++) {
-                    if (!hasValue[i]) {
-                        if (!allowMissingComponentValues) {
-                            // JSON path here refers to last property
-                            throw new JsonParseException("Missing value for " + getComponentDisplayString(components[i]) + "; last property is at JSON path " + in.getPath());
-                        }
-                        Class<?> componentType = components[i].getType();
-                        if (componentType.isPrimitive()) {
-                            values[i] = getPrimitiveDefaultValue(componentType);
-                        }
-                    }
-                }
+        if (jfrEvent != null) {
+            String creatorsString = usedAdapterCreators.stream()
+                .map(Object::toString)
+                .collect(Collectors.joining(", "));
+            JfrEvents.commitAdapterCreation(jfrEvent, rawType, components.length, creatorsString);
+        }
+        return adapter;
+    }
+
+    /**
+     * Creates a columnar adapter if the type is a {@code List} or an array of a Record class for which
+     * columnar encoding is used; returns {@code null} otherwise.
+     */
+    private <T> TypeAdapter<T> createColumnarAdapter(Gson gson, TypeToken<T> type) {
+        Class<?> rawType = type.getRawType();
+        Type elementType;
+        Class<?> arrayComponentType;
+        if (rawType == List.class) {
+            // Raw List has no element type
+            if (!(type.getType() instanceof ParameterizedType parameterizedType)) {
+                return null;
+            }
+            elementType = parameterizedType.getActualTypeArguments()[0];
+            if (elementType instanceof WildcardType wildcardType) {
+                elementType = wildcardType.getUpperBounds()[0];
+            }
+            arrayComponentType = null;
+        } else if (rawType.isArray()) {
+            elementType = type.getType() instanceof GenericArrayType genericArrayType
+                ? genericArrayType.getGenericComponentType()
+                : rawType.getComponentType();
+            arrayComponentType = rawType.getComponentType();
+        } else {
+            return null;
+        }
 
-                in.endObject();
-                try {
-                    @SuppressWarnings("unchecked")
-                    T result = (T) constructor.newInstance(values);
-                    return result;
-                } catch (InstantiationException | IllegalAccessException | IllegalArgumentException e) {
-                    throw new JsonParseException("Failed creating record instance for " + rawType, e);
-                } catch (InvocationTargetException e) {
-                    throw new JsonParseException("Failed creating record instance for " + rawType, e.getCause());
+        TypeToken<?> elementTypeToken = TypeToken.get(elementType);
+        if (!columnarRecordClasses.contains(elementTypeToken.getRawType())) {
+            return null;
+        }
+        // Directly uses adapter of this factory to have access to component adapters
+        RecordTypeAdapter<?> recordAdapter = (RecordTypeAdapter<?>) create(gson, elementTypeToken);
+        @SuppressWarnings("unchecked")
+        TypeAdapter<T> adapter = (TypeAdapter<T>) new ColumnarTypeAdapter(recordAdapter, arrayComponentType);
+        return adapter;
+    }
+
+    /**
+     * Gets the Record classes of the sealed interface, including Record classes of permitted sealed
+     * subinterfaces; returns {@code null} if sealed interfaces are not handled by this factory, or if the
+     * class is not a sealed interface or has permitted subclasses which are neither Records nor sealed
+     * interfaces.
+     */
+    private List<Class<?>> getSealedRecordSubclasses(Class<?> c) {
+        if (discriminatorName == null || !c.isInterface() || !c.isSealed()) {
+            return null;
+        }
+
+        List<Class<?>> recordClasses = new ArrayList<>();
+        for (Class<?> subclass : c.getPermittedSubclasses()) {
+            if (subclass.isRecord()) {
+                recordClasses.add(subclass);
+            } else {
+                List<Class<?>> nested = getSealedRecordSubclasses(subclass);
+                if (nested == null) {
+                    return null;
                 }
+                recordClasses.addAll(nested);
             }
-        };
+        }
+        return recordClasses;
     }
 
-    private static Constructor<?> getCanonicalConstructor(Class<?> recordType, RecordComponent[] components) throws RecordTypeAdapterException {
-        Class<?>[] types = new Class<?>[components.length];
-        for (int i = 0; i < components.length; i++) {
-            types[i] = components[i].getType();
+    /**
+     * Creates a sealed type adapter if the class is a sealed interface with Record subclasses; returns
+     * {@code null} otherwise.
+     */
+    private <T> TypeAdapter<T> createSealedAdapter(Gson gson, Class<?> sealedType) throws RecordTypeAdapterException {
+        List<Class<?>> recordClasses = getSealedRecordSubclasses(sealedType);
+        if (recordClasses == null) {
+            return null;
         }
 
-        Constructor<?> constructor;
-        // Get canonical constructor, see also https://docs.oracle.com/javase/specs/jls/se17/html/jls-8.html#jls-8.10.4
-        try {
-            constructor = recordType.getDeclaredConstructor(types);
-        } catch (NoSuchMethodException e) {
-            throw new RecordTypeAdapterException("Unexpected: Failed finding canonical constructor for " + recordType, e);
+        Map<String, RecordTypeAdapter<?>> adaptersByDiscriminator = new HashMap<>();
+        Map<Class<?>, SealedTypeAdapter.Subtype> subtypesByClass = new HashMap<>();
+        for (Class<?> recordClass : recordClasses) {
+            // Subclasses can be permitted by multiple sealed subinterfaces
+            if (subtypesByClass.containsKey(recordClass)) {
+                continue;
+            }
+
+            String discriminator = recordClass.getSimpleName();
+            // Directly uses adapter of this factory to be able to write discriminator
+            RecordTypeAdapter<?> recordAdapter = (RecordTypeAdapter<?>) create(gson, TypeToken.get(recordClass));
+            RecordTypeAdapter<?> existing = adaptersByDiscriminator.put(discriminator, recordAdapter);
+            if (existing != null) {
+                throw new RecordTypeAdapterException("Discriminator '" + discriminator + "' for " + recordClass.getName() + " clashes with discriminator of " + existing.getRecordType().getName() + ", subclass of " + sealedType);
+            }
+            if (!useArrayEncoding && recordAdapter.usesPropertyName(discriminatorName)) {
+                throw new RecordTypeAdapterException("Discriminator property name '" + discriminatorName + "' clashes with property name of component of " + recordClass.getName() + ", subclass of " + sealedType);
+            }
+            subtypesByClass.put(recordClass, new SealedTypeAdapter.Subtype(discriminator, recordAdapter));
         }
-        try {
-            constructor.setAccessible(true);
-        } catch (InaccessibleObjectException e) {
-            // Constructor has the same visibility as record, so might not be accessible
-            throw new RecordTypeAdapterException("Cannot access canonical constructor of " + recordType + "; either change the visibility of the record class to `public` or open it to this library", e);
+
+        return new SealedTypeAdapter<>(
+            sealedType,
+            discriminatorName,
+            useArrayEncoding,
+            Map.copyOf(adaptersByDiscriminator),
+            Map.copyOf(subtypesByClass),
+            gson.getAdapter(JsonElement.class)
+        );
+    }
+
+    /**
+     * Gets the statistics about the order of JSON properties encountered during deserialization of
+     * the given Record class. The statistics include all deserializations performed by type adapters
+     * which have been created by this factory, regardless of which {@code Gson} instance they belong to.
+     * If no type adapter has been created for the class yet, statistics with all counts being 0 are
+     * returned.
+     *
+     * @param recordClass
+     *      Record class for which the statistics should be returned
+     * @return
+     *      The statistics for the Record class
+     * @throws IllegalStateException
+     *      If this factory has not been configured to {@linkplain Builder#collectPropertyOrderStatistics() collect statistics}
+     */
+    public PropertyOrderStatistics getPropertyOrderStatistics(Class<? extends Record> recordClass) {
+        Objects.requireNonNull(recordClass);
+        if (propertyOrderCounters == null) {
+            throw new IllegalStateException("Collection of property order statistics is not enabled");
         }
-        return constructor;
+        RecordTypeAdapter.PropertyOrderCounter counter = propertyOrderCounters.get(recordClass);
+        return counter == null ? new PropertyOrderStatistics(0, 0) : counter.getStatistics();
     }
 
-    private static final Byte DEFAULT_BYTE = (byte) 0;
-    private static final Short DEFAULT_SHORT = (short) 0;
-    private static final Integer DEFAULT_INT = 0;
-    private static final Long DEFAULT_LONG = 0L;
-    private static final Float DEFAULT_FLOAT = 0f;
-    private static final Double DEFAULT_DOUBLE = 0d;
-    private static final Character DEFAULT_CHAR = '\0';
-
-    private static Object getPrimitiveDefaultValue(Class<?> c) {
-        if (c == byte.class) return DEFAULT_BYTE;
-        if (c == short.class) return DEFAULT_SHORT;
-        if (c == int.class) return DEFAULT_INT;
-        if (c == long.class) return DEFAULT_LONG;
-        if (c == float.class) return DEFAULT_FLOAT;
-        if (c == double.class) return DEFAULT_DOUBLE;
-        if (c == boolean.class) return Boolean.FALSE;
-        if (c == char.class) return DEFAULT_CHAR;
-        throw new AssertionError("Not primitive: " + c);
+    /**
+     * Gets the statistics of the pool used for deduplicating deserialized String component values. The
+     * statistics include all deserializations performed by type adapters which have been created by
+     * this factory, regardless of which {@code Gson} instance they belong to.
+     *
+     * @return
+     *      The statistics of the string pool
+     * @throws IllegalStateException
+     *      If this factory has not been configured to {@linkplain Builder#internStrings(Class, Set) deduplicate}
+     *      any component values
+     */
+    public CacheStatistics getStringInternPoolStatistics() {
+        if (stringInternPool == null) {
+            throw new IllegalStateException("Deduplication of String component values is not enabled");
+        }
+        return stringInternPool.getStatistics();
+    }
+
+    /**
+     * Gets the statistics of the cache for resolved generic Record component types. When a type adapter is
+     * created for a parameterization of a generic Record class, for example {@code MyRecord<String>}, the
+     * component types are resolved for the type arguments, and the result is cached. The cache is shared by
+     * all factories, and only contains a bounded number of entries for every Record class. The statistics
+     * only cover generic Record classes.
+     *
+     * <p>Because the cache is shared, the statistics are global as well; they include the lookups of all
+     * factories and {@code Gson} instances and cannot be attributed to a single one of them.
+     *
+     * <p>The cache entries are kept as long as the Record class is loaded. To not prevent unloading of other
+     * classes, types are not cached if they refer to classes which are loaded by a class loader which is
+     * neither the class loader of the Record class nor one of its ancestors. For example when a Record class
+     * of a library is used with type arguments from a web application, the component types are resolved
+     * again every time an adapter is created; these lookups are counted as misses.
+     *
+     * @return
+     *      The statistics of the resolved component types cache
+     */
+    public static CacheStatistics getComponentTypesCacheStatistics() {
+        return ComponentTypeHelper.ResolvedTypesCache.getStatistics();
+    }
+
+    /**
+     * Creates a method handle of type {@code (Object[], long[])Object} from the given handle invoking the canonical
+     * constructor. For every component the handle obtains the argument from the slot in
+     * one of the arrays; values of primitive components with a {@linkplain PrimitiveKind primitive kind} are
+     * taken from the {@code long[]} without boxing, all other values are taken from the {@code Object[]}.
+     */
+    private static MethodHandle getConstructorHandle(MethodHandle handle, PrimitiveKind[] primitiveKinds, int[] slots) {
+        MethodType constructorType = handle.type();
+        MethodHandle referenceGetter = MethodHandles.arrayElementGetter(Object[].class);
+        MethodHandle primitiveGetter = MethodHandles.arrayElementGetter(long[].class);
+        MethodHandle[] argumentGetters = new MethodHandle[primitiveKinds.length];
+        // For every constructor parameter the index of the slots array it is taken from
+        int[] slotsArrayIndices = new int[primitiveKinds.length];
+        for (int i = 0; i < primitiveKinds.length; i++) {
+            PrimitiveKind primitiveKind = primitiveKinds[i];
+            if (primitiveKind == null) {
+                // Unboxes value in case of primitive parameter type
+                argumentGetters[i] = MethodHandles.insertArguments(referenceGetter, 1, slots[i])
+                    .asType(MethodType.methodType(constructorType.parameterType(i), Object[].class));
+                slotsArrayIndices[i] = 0;
+            } else {
+                argumentGetters[i] = MethodHandles.filterReturnValue(
+                    MethodHandles.insertArguments(primitiveGetter, 1, slots[i]),
+                    primitiveKind.fromSlot()
+                );
+                slotsArrayIndices[i] = 1;
+            }
+        }
+
+        handle = MethodHandles.filterArguments(handle, 0, argumentGetters);
+        // Merge the array parameters of all getters
+        handle = MethodHandles.permuteArguments(handle, MethodType.methodType(constructorType.returnType(), Object[].class, long[].class), slotsArrayIndices);
+        // Adapt type to allow calling handle with invokeExact
+        return handle.asType(MethodType.methodType(Object.class, Object[].class, long[].class));
     }
 }
@@ -2,21 +2,107 @@ package marcono1234.gson.recordadapter;
 
 import com.google.gson.Gson;
 import com.google.gson.TypeAdapter;
-import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Does not match com.google.gson.internal.bind.TypeAdapterRuntimeTypeWrapper behavior
 // but instead always uses runtime type to be more deterministic
 class RuntimeTypeTypeAdapter<T> extends TypeAdapter<T> {
+    /** Maximum number of runtime types cached in {@link #additionalAdapters} */
+    static final int MAX_ADDITIONAL_CACHED_TYPES = 8;
+
+    /**
+     * Immutable cache entry; due to the final fields it can be safely published without
+     * synchronization.
+     */
+    private static class CacheEntry {
+        final Class<?> type;
+        final TypeAdapter<?> adapter;
+
+        CacheEntry(Class<?> type, TypeAdapter<?> adapter) {
+            this.type = type;
+            this.adapter = adapter;
+        }
+    }
+
     private final Gson gson;
     private final TypeAdapter<T> delegate;
 
+    // Inline cache of runtime type adapters, to avoid creating a TypeToken and performing a
+    // lookup in the Gson adapter cache for every value; usually the component value only has
+    // one or two different runtime types
+    private CacheEntry first;
+    private CacheEntry second;
+    /** Bounded cache for additional runtime types, if more than two exist */
+    private final Map<Class<?>, TypeAdapter<?>> additionalAdapters;
+
     RuntimeTypeTypeAdapter(Gson gson, TypeAdapter<T> delegate) {
         this.gson = gson;
         this.delegate = delegate;
+        additionalAdapters = new ConcurrentHashMap<>();
+    }
+
+    TypeAdapter<T> getRuntimeTypeAdapter(Class<?> runtimeType) {
+        TypeAdapter<?> adapter;
+        // Read fields only once, they might be modified concurrently
+        CacheEntry entry = first;
+        if (entry != null && entry.type == runtimeType) {
+            adapter = entry.adapter;
+        } else {
+            entry = second;
+            if (entry != null && entry.type == runtimeType) {
+                adapter = entry.adapter;
+            } else {
+                adapter = getRuntimeTypeAdapterSlow(runtimeType);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        TypeAdapter<T> r = (TypeAdapter<T>) adapter;
+        return r;
+    }
+
+    // Package-private for testing
+    TypeAdapter<?> getRuntimeTypeAdapterSlow(Class<?> runtimeType) {
+        TypeAdapter<?> adapter = additionalAdapters.get(runtimeType);
+        if (adapter != null) {
+            return adapter;
+        }
+
+        adapter = gson.getAdapter(runtimeType);
+        synchronized (this) {
+            // Another thread might have cached the adapter in the meantime; check again to not
+            // occupy multiple cache entries with the same type
+            if (first != null && first.type == runtimeType) {
+                return first.adapter;
+            }
+            if (second != null && second.type == runtimeType) {
+                return second.adapter;
+            }
+            TypeAdapter<?> cachedAdapter = additionalAdapters.get(runtimeType);
+            if (cachedAdapter != null) {
+                return cachedAdapter;
+            }
+
+            if (first == null) {
+                first = new CacheEntry(runtimeType, adapter);
+            } else if (second == null) {
+                second = new CacheEntry(runtimeType, adapter);
+            } else if (additionalAdapters.size() < MAX_ADDITIONAL_CACHED_TYPES) {
+                additionalAdapters.put(runtimeType, adapter);
+            }
+            // Otherwise don't cache the adapter; Gson caches it as well
+        }
+        return adapter;
+    }
+
+    // Package-private for testing
+    synchronized boolean isInlineCached(Class<?> runtimeType) {
+        return (first != null && first.type == runtimeType) || (second != null && second.type == runtimeType);
     }
 
     @Override
@@ -25,9 +111,7 @@ class RuntimeTypeTypeAdapter<T> extends TypeAdapter<T> {
             // Let compile time type adapter handle it; might write custom value
             delegate.write(out, null);
         } else {
-            @SuppressWarnings("unchecked")
-            TypeAdapter<T> adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(value.getClass()));
-            adapter.write(out, value);
+            getRuntimeTypeAdapter(value.getClass()).write(out, value);
         }
     }
 
@@ -0,0 +1,128 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Type adapter for a sealed interface whose permitted subclasses are Records, created by
+ * {@link RecordTypeAdapterFactory}. The Record class of a value is identified by a discriminator,
+ * which is written as first property of the JSON object, or as first element of the JSON array if
+ * array encoding is used.
+ *
+ * <p>During deserialization the discriminator is expected to be the first property, in which case the
+ * remaining properties are directly read by the {@link RecordTypeAdapter} of the Record class. Only
+ * if the discriminator is not the first property the JSON object is buffered as {@link JsonObject}
+ * to find the discriminator.
+ */
+class SealedTypeAdapter<T> extends TypeAdapter<T> {
+    record Subtype(String discriminator, RecordTypeAdapter<?> adapter) { }
+
+    private final Class<?> sealedType;
+    private final String discriminatorName;
+    private final boolean useArrayEncoding;
+    private final Map<String, RecordTypeAdapter<?>> adaptersByDiscriminator;
+    private final Map<Class<?>, Subtype> subtypesByClass;
+    /** Adapter used for buffering JSON objects whose first property is not the discriminator */
+    private final TypeAdapter<JsonElement> jsonElementAdapter;
+
+    SealedTypeAdapter(
+        Class<?> sealedType,
+        String discriminatorName,
+        boolean useArrayEncoding,
+        Map<String, RecordTypeAdapter<?>> adaptersByDiscriminator,
+        Map<Class<?>, Subtype> subtypesByClass,
+        TypeAdapter<JsonElement> jsonElementAdapter
+    ) {
+        this.sealedType = sealedType;
+        this.discriminatorName = discriminatorName;
+        this.useArrayEncoding = useArrayEncoding;
+        this.adaptersByDiscriminator = adaptersByDiscriminator;
+        this.subtypesByClass = subtypesByClass;
+        this.jsonElementAdapter = jsonElementAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        Class<?> valueClass = value.getClass();
+        Subtype subtype = subtypesByClass.get(valueClass);
+        if (subtype == null) {
+            // Should only happen if the sealed hierarchy changed after the adapter was created
+            throw new JsonParseException("Unsupported subclass " + valueClass.getName() + " of " + sealedType);
+        }
+        subtype.adapter.writeNonNull(out, value, discriminatorName, subtype.discriminator);
+    }
+
+    private RecordTypeAdapter<?> getAdapter(String discriminator, JsonReader in) {
+        RecordTypeAdapter<?> adapter = adaptersByDiscriminator.get(discriminator);
+        if (adapter == null) {
+            throw new JsonParseException("Unknown discriminator value '" + discriminator + "' for " + sealedType + " at JSON path " + in.getPath());
+        }
+        return adapter;
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.skipValue();
+            return null;
+        }
+
+        Object result;
+        if (useArrayEncoding) {
+            in.beginArray();
+            result = getAdapter(in.nextString(), in).readRemaining(in);
+        } else {
+            in.beginObject();
+            if (!in.hasNext()) {
+                throw new JsonParseException("Missing discriminator property '" + discriminatorName + "' for " + sealedType + " at JSON path " + in.getPath());
+            }
+
+            String name = in.nextName();
+            if (name.equals(discriminatorName)) {
+                result = getAdapter(in.nextString(), in).readRemaining(in);
+            } else {
+                result = readBuffered(in, name);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T t = (T) result;
+        return t;
+    }
+
+    /**
+     * Reads the remaining properties into a {@code JsonObject}, and then uses the discriminator property
+     * to find the adapter for it.
+     */
+    private Object readBuffered(JsonReader in, String firstName) throws IOException {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.add(firstName, jsonElementAdapter.read(in));
+        while (in.hasNext()) {
+            String name = in.nextName();
+            jsonObject.add(name, jsonElementAdapter.read(in));
+        }
+        in.endObject();
+
+        JsonElement discriminator = jsonObject.remove(discriminatorName);
+        if (discriminator == null) {
+            throw new JsonParseException("Missing discriminator property '" + discriminatorName + "' for " + sealedType + " at JSON path " + in.getPath());
+        }
+        if (!discriminator.isJsonPrimitive() || !discriminator.getAsJsonPrimitive().isString()) {
+            throw new JsonParseException("Discriminator property '" + discriminatorName + "' for " + sealedType + " is not a string: " + discriminator + "; at JSON path " + in.getPath());
+        }
+        return getAdapter(discriminator.getAsString(), in).fromJsonTree(jsonObject);
+    }
+}
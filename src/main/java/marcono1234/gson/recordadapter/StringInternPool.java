@@ -0,0 +1,46 @@
+package marcono1234.gson.recordadapter;
+
+/**
+ * Thread-safe pool for deduplicating deserialized String component values, see
+ * {@link RecordTypeAdapterFactory.Builder#internStrings(Class, java.util.Set)}. Unlike {@link String#intern()}
+ * the pool has a maximum size; when it is reached a string which has not been used recently is evicted,
+ * see {@link BoundedCache}. The pool is therefore mainly effective for components with a small number of
+ * distinct values.
+ */
+class StringInternPool {
+    static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final BoundedCache.Counters counters = new BoundedCache.Counters();
+    private final BoundedCache<String, String> strings;
+
+    /**
+     * @param maxSize
+     *      the maximum number of strings in the pool
+     */
+    StringInternPool(int maxSize) {
+        strings = new BoundedCache<>(maxSize, counters);
+    }
+
+    /**
+     * Returns the pooled string equal to the given string, or adds the string to the pool if no
+     * such string exists.
+     */
+    String intern(String s) {
+        String pooled = strings.get(s);
+        if (pooled != null) {
+            return pooled;
+        }
+
+        pooled = strings.putIfAbsent(s, s);
+        // Another thread might have added an equal string in the meantime
+        return pooled == null ? s : pooled;
+    }
+
+    int size() {
+        return strings.size();
+    }
+
+    CacheStatistics getStatistics() {
+        return counters.getStatistics();
+    }
+}
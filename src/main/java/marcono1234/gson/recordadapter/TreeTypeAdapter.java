@@ -15,6 +15,12 @@ import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.lang.reflect.Type;
 
+/**
+ * Adapter for a {@link JsonSerializer} and / or {@link JsonDeserializer}. A {@link JsonElement} tree is
+ * only created for the direction for which the user-provided callback requires it; for the other direction
+ * the streaming type adapter of the type is used as delegate. The tree returned by the serializer is
+ * streamed directly to the {@code JsonWriter} without creating any further copy.
+ */
 // Similar to com.google.gson.internal.bind.TreeTypeAdapter
 class TreeTypeAdapter<T> extends TypeAdapter<T> {
     private final JsonSerializer<T> serializer;
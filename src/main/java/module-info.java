@@ -7,6 +7,8 @@
 @SuppressWarnings({"module", "JavaModuleNaming"})
 module marcono1234.gson.recordadapter {
     requires transitive com.google.gson;
+    // Optional, only used for emitting JFR events if available
+    requires static jdk.jfr;
 
     exports marcono1234.gson.recordadapter;
 }
@@ -0,0 +1,68 @@
+package marcono1234.gson.recordadapter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedCacheTest {
+    @Test
+    void testGetPut() {
+        BoundedCache.Counters counters = new BoundedCache.Counters();
+        BoundedCache<String, String> cache = new BoundedCache<>(10, counters);
+        assertNull(cache.get("a"));
+        assertNull(cache.putIfAbsent("a", "1"));
+        // Existing value is kept
+        assertEquals("1", cache.putIfAbsent("a", "2"));
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.size());
+        assertEquals(new CacheStatistics(1, 1, 0), counters.getStatistics());
+    }
+
+    @Test
+    void testEviction() {
+        BoundedCache.Counters counters = new BoundedCache.Counters();
+        BoundedCache<String, String> cache = new BoundedCache<>(3, counters);
+        cache.putIfAbsent("a", "1");
+        cache.putIfAbsent("b", "2");
+        cache.putIfAbsent("c", "3");
+        cache.get("a");
+        cache.get("c");
+
+        // Should evict "b", which has not been used
+        cache.putIfAbsent("d", "4");
+        assertEquals(3, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+        assertEquals("4", cache.get("d"));
+
+        // All entries have been used; clears their flags and evicts the first entry visited again
+        cache.putIfAbsent("e", "5");
+        assertEquals(3, cache.size());
+        assertNull(cache.get("c"));
+        assertEquals(new CacheStatistics(5, 2, 2), counters.getStatistics());
+    }
+
+    @Test
+    void testEviction_KeepsRecentlyUsed() {
+        BoundedCache.Counters counters = new BoundedCache.Counters();
+        BoundedCache<String, String> cache = new BoundedCache<>(4, counters);
+        cache.putIfAbsent("frequent", "f");
+        for (int i = 0; i < 100; i++) {
+            // Entry which is used between additions must never be evicted
+            assertEquals("f", cache.get("frequent"));
+            cache.putIfAbsent(Integer.toString(i), "");
+        }
+        assertEquals("f", cache.get("frequent"));
+        assertEquals(4, cache.size());
+        assertEquals(97, counters.getStatistics().evictions());
+    }
+
+    @Test
+    void testInvalidMaxSize() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0, new BoundedCache.Counters()));
+        assertEquals("Max size must be positive: 0", e.getMessage());
+    }
+}
@@ -0,0 +1,206 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarTypeAdapterTest {
+    record N(int i) { }
+    record R(int i, String s, boolean b, N n) { }
+    record Generic<T>(T t) { }
+
+    private static Gson createGson(RecordTypeAdapterFactory.Builder builder) {
+        return new GsonBuilder()
+            .registerTypeAdapterFactory(builder.create())
+            .create();
+    }
+
+    private static final TypeToken<List<R>> LIST_TYPE = new TypeToken<>() {};
+
+    @Test
+    void testList() throws IOException {
+        TypeAdapter<List<R>> typeAdapter = createGson(RecordTypeAdapterFactory.builder().useColumnarEncoding(R.class))
+            .getAdapter(LIST_TYPE);
+        List<R> records = List.of(new R(1, "a", true, new N(2)), new R(3, null, false, null));
+        String json = typeAdapter.toJson(records);
+        // Nested Record is not affected
+        assertEquals("{\"i\":[1,3],\"s\":[\"a\",null],\"b\":[true,false],\"n\":[{\"i\":2},null]}", json);
+        assertEquals(records, typeAdapter.fromJson(json));
+
+        assertEquals("{\"i\":[],\"s\":[],\"b\":[],\"n\":[]}", typeAdapter.toJson(List.of()));
+        assertEquals(List.of(), typeAdapter.fromJson("{\"i\":[],\"s\":[],\"b\":[],\"n\":[]}"));
+        assertEquals(List.of(), typeAdapter.fromJson("{}"));
+
+        assertEquals("null", typeAdapter.toJson(null));
+        assertNull(typeAdapter.fromJson("null"));
+
+        // Columns in different order
+        assertEquals(records, typeAdapter.fromJson("{\"n\":[{\"i\":2},null],\"b\":[true,false],\"s\":[\"a\",null],\"i\":[1,3]}"));
+
+        // Result should be modifiable, like the List created by Gson
+        List<R> actual = typeAdapter.fromJson(json);
+        actual.add(new R(4, "b", true, null));
+    }
+
+    @Test
+    void testArray() throws IOException {
+        Gson gson = createGson(RecordTypeAdapterFactory.builder().useColumnarEncoding(R.class));
+        R[] records = {new R(1, "a", true, new N(2)), new R(3, "b", false, null)};
+        String json = gson.toJson(records);
+        assertEquals("{\"i\":[1,3],\"s\":[\"a\",\"b\"],\"b\":[true,false],\"n\":[{\"i\":2},null]}", json);
+        assertArrayEquals(records, gson.fromJson(json, R[].class));
+    }
+
+    @Test
+    void testGeneric() {
+        Gson gson = createGson(RecordTypeAdapterFactory.builder().useColumnarEncoding(Generic.class));
+        TypeToken<List<Generic<N>>> type = new TypeToken<>() {};
+        List<Generic<N>> records = List.of(new Generic<>(new N(1)), new Generic<>(new N(2)));
+        String json = gson.toJson(records, type.getType());
+        assertEquals("{\"t\":[{\"i\":1},{\"i\":2}]}", json);
+        assertEquals(records, gson.fromJson(json, type));
+
+        TypeToken<List<? extends Generic<N>>> wildcardType = new TypeToken<>() {};
+        assertEquals(json, gson.toJson(records, wildcardType.getType()));
+
+        TypeToken<Generic<N>[]> arrayType = new TypeToken<>() {};
+        Generic<N>[] array = gson.fromJson(json, arrayType);
+        assertEquals(records, Arrays.asList(array));
+    }
+
+    @Test
+    void testNotAffected() {
+        Gson gson = createGson(RecordTypeAdapterFactory.builder().useColumnarEncoding(R.class));
+        // Other collection types are not affected
+        assertEquals("[{\"i\":1}]", gson.toJson(new ArrayList<>(List.of(new N(1))), new TypeToken<ArrayList<N>>() {}.getType()));
+        assertEquals("[{\"i\":1}]", gson.toJson(List.of(new N(1)), new TypeToken<List<N>>() {}.getType()));
+        // Raw List
+        assertEquals("[{\"i\":1,\"s\":\"a\",\"b\":true}]", gson.toJson(List.of(new R(1, "a", true, null)), List.class));
+
+        // Lists of Records are not handled by default
+        gson = createGson(RecordTypeAdapterFactory.builder());
+        assertEquals("[{\"i\":1,\"s\":\"a\",\"b\":true}]", gson.toJson(List.of(new R(1, "a", true, null)), LIST_TYPE.getType()));
+    }
+
+    @Test
+    void testNullElement() {
+        TypeAdapter<List<R>> typeAdapter = createGson(RecordTypeAdapterFactory.builder().useColumnarEncoding(R.class))
+            .getAdapter(LIST_TYPE);
+        List<R> records = Arrays.asList(new R(1, "a", true, null), null);
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.toJson(records));
+        assertEquals("Columnar encoding does not support null elements, for " + R.class, e.getMessage());
+    }
+
+    @Test
+    void testInvalidColumns() {
+        TypeAdapter<List<R>> typeAdapter = createGson(RecordTypeAdapterFactory.builder().useColumnarEncoding(R.class))
+            .getAdapter(LIST_TYPE);
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"i\":[1,2],\"s\":[\"a\"]}"));
+        assertEquals("Column for " + R.class.getName() + ".s provided by property 's' has 1 values, but previous columns have 2 values; at JSON path $.s", e.getMessage());
+
+        e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"i\":[1],\"s\":[\"a\"]}"));
+        assertEquals("Missing column for " + R.class.getName() + ".b at JSON path $", e.getMessage());
+
+        e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"i\":[1],\"i\":[2]}"));
+        assertEquals("Duplicate value for " + R.class.getName() + ".i provided by property 'i' at JSON path $.i", e.getMessage());
+
+        e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"i\":[null]}"));
+        assertEquals("JSON null is not allowed for primitive " + R.class.getName() + ".i provided by property 'i' at JSON path $.i[0]", e.getMessage());
+    }
+
+    @Test
+    void testOptions() throws IOException {
+        TypeAdapter<List<R>> typeAdapter = createGson(RecordTypeAdapterFactory.builder()
+            .useColumnarEncoding(R.class)
+            .allowMissingComponentValues()
+            .withProjection(R.class, Set.of("i", "s"))
+        ).getAdapter(LIST_TYPE);
+        // Unknown column and column of skipped component are ignored; missing column is allowed
+        assertEquals(
+            List.of(new R(1, null, false, null), new R(2, null, false, null)),
+            typeAdapter.fromJson("{\"i\":[1,2],\"x\":[1],\"b\":\"invalid\"}")
+        );
+
+        TypeAdapter<List<R>> disallowUnknownAdapter = createGson(RecordTypeAdapterFactory.builder()
+            .useColumnarEncoding(R.class)
+            .disallowUnknownProperties()
+        ).getAdapter(LIST_TYPE);
+        Exception e = assertThrows(JsonParseException.class, () -> disallowUnknownAdapter.fromJson("{\"x\":[]}"));
+        assertEquals("Unknown property 'x' for " + R.class + " at JSON path $.x", e.getMessage());
+
+        // Array encoding is used for nested Records, but columns are still named
+        TypeAdapter<List<R>> arrayEncodingAdapter = createGson(RecordTypeAdapterFactory.builder()
+            .useColumnarEncoding(R.class)
+            .useArrayEncoding()
+        ).getAdapter(LIST_TYPE);
+        List<R> records = List.of(new R(1, "a", true, new N(2)));
+        String json = arrayEncodingAdapter.toJson(records);
+        assertEquals("{\"i\":[1],\"s\":[\"a\"],\"b\":[true],\"n\":[[2]]}", json);
+        assertEquals(records, arrayEncodingAdapter.fromJson(json));
+    }
+
+    @Test
+    void testMetrics() throws IOException {
+        List<String> calls = new ArrayList<>();
+        RecordAdapterMetrics metrics = new RecordAdapterMetrics() {
+            @Override
+            public void recordRead(Class<? extends Record> recordClass, long durationNanos) {
+                calls.add("read " + recordClass.getSimpleName());
+            }
+
+            @Override
+            public void recordWritten(Class<? extends Record> recordClass, long durationNanos) {
+                calls.add("written " + recordClass.getSimpleName());
+            }
+
+            @Override
+            public void missingComponentValue(Class<? extends Record> recordClass, RecordComponent component) {
+                calls.add("missing " + component.getName());
+            }
+        };
+        TypeAdapter<List<R>> typeAdapter = createGson(RecordTypeAdapterFactory.builder()
+            .useColumnarEncoding(R.class)
+            .allowMissingComponentValues()
+            .withMetrics(metrics)
+        ).getAdapter(LIST_TYPE);
+        assertEquals(
+            List.of(new R(1, null, false, null), new R(2, null, false, null), new R(3, null, false, null)),
+            typeAdapter.fromJson("{\"i\":[1,2,3],\"b\":[false,false,false]}")
+        );
+        // Reported once per missing column, not once per row
+        assertEquals(List.of("missing s", "missing n", "read R", "read R", "read R"), calls);
+
+        calls.clear();
+        assertEquals("{\"i\":[1,2],\"s\":[null,null],\"b\":[false,false],\"n\":[{\"i\":3},null]}", typeAdapter.toJson(List.of(new R(1, null, false, new N(3)), new R(2, null, false, null))));
+        // Nested Record is written by regular adapter
+        assertEquals(List.of("written N", "written R", "written R"), calls);
+
+        calls.clear();
+        assertEquals(List.of(), typeAdapter.fromJson("{}"));
+        assertEquals("{\"i\":[],\"s\":[],\"b\":[],\"n\":[]}", typeAdapter.toJson(List.of()));
+        assertEquals(List.of(), calls);
+    }
+
+    @Test
+    void testInvalidRecordClass() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends Record> notRecord = (Class) String.class;
+        Exception e = assertThrows(IllegalArgumentException.class, () -> RecordTypeAdapterFactory.builder().useColumnarEncoding(notRecord));
+        assertEquals("Not a Record class: java.lang.String", e.getMessage());
+    }
+}
@@ -0,0 +1,338 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactJsonWriterTest {
+    private interface WriterAction {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    /**
+     * Asserts that the {@code CompactJsonWriter} produces the same output as a regular {@code JsonWriter}.
+     */
+    private static void assertSameOutput(String expectedJson, WriterAction action) throws IOException {
+        StringWriter expectedOutput = new StringWriter();
+        action.write(new JsonWriter(expectedOutput));
+        assertEquals(expectedJson, expectedOutput.toString());
+
+        StringWriter actualOutput = new StringWriter();
+        action.write(new CompactJsonWriter(actualOutput));
+        assertEquals(expectedJson, actualOutput.toString());
+    }
+
+    @Test
+    void testWrite() throws IOException {
+        assertSameOutput("{\"a\":[1,true,null,\"s\",1.5,2,-3.0,[],{}],\"b\":{\"c\":false}}", writer -> {
+            writer.beginObject();
+            writer.name("a");
+            writer.beginArray();
+            writer.value(1);
+            writer.value(Boolean.TRUE);
+            writer.nullValue();
+            writer.value("s");
+            writer.value(1.5);
+            writer.value(new BigDecimal("2"));
+            writer.jsonValue("-3.0");
+            writer.beginArray().endArray();
+            writer.beginObject().endObject();
+            writer.endArray();
+            writer.name("b");
+            writer.beginObject();
+            writer.name("c").value(false);
+            writer.endObject();
+            writer.endObject();
+            writer.close();
+        });
+    }
+
+    @Test
+    void testWrite_Escaping() throws IOException {
+        String s = "\"\\\t\b\n\r\f\u0000\u001f<>&='\u2028\u2029\u00e4";
+        assertSameOutput("{\"\\\"\\\\\\t\\b\\n\\r\\f\\u0000\\u001f<>&='\\u2028\\u2029\u00e4\":\"\\\"\\\\\\t\\b\\n\\r\\f\\u0000\\u001f<>&='\\u2028\\u2029\u00e4\"}", writer -> {
+            writer.beginObject();
+            writer.name(s).value(s);
+            writer.endObject();
+        });
+
+        assertSameOutput("[\"\\u003c\\u003e\\u0026\\u003d\\u0027\"]", writer -> {
+            writer.setHtmlSafe(true);
+            writer.beginArray();
+            writer.value("<>&='");
+            writer.endArray();
+        });
+    }
+
+    @Test
+    void testWrite_SerializeNulls() throws IOException {
+        assertSameOutput("{\"a\":null,\"b\":null,\"c\":1}", writer -> {
+            writer.beginObject();
+            writer.name("a").nullValue();
+            writer.name("b").value((String) null);
+            writer.name("c").value(1);
+            writer.endObject();
+        });
+        assertSameOutput("{\"c\":1}", writer -> {
+            writer.setSerializeNulls(false);
+            writer.beginObject();
+            writer.name("a").nullValue();
+            writer.name("b").value((Number) null);
+            writer.name("c").value(1);
+            writer.endObject();
+        });
+    }
+
+    @Test
+    void testWrite_Lenient() throws IOException {
+        assertSameOutput("NaN[-Infinity,Infinity,NaN]", writer -> {
+            writer.setLenient(true);
+            writer.value(Double.NaN);
+            writer.beginArray();
+            writer.value(Double.NEGATIVE_INFINITY);
+            writer.value(Float.valueOf(Float.POSITIVE_INFINITY));
+            writer.value(Float.NaN);
+            writer.endArray();
+        });
+    }
+
+    @Test
+    void testWrite_Float() throws IOException {
+        // Must not be written as double, which would be 0.10000000149011612
+        assertSameOutput("[0.1,-1.5E-10,3.4028235E38]", writer -> {
+            writer.beginArray();
+            writer.value(0.1f);
+            writer.value(-1.5E-10f);
+            writer.value(Float.MAX_VALUE);
+            writer.endArray();
+        });
+    }
+
+    /**
+     * Writes a property name, using the pre-encoded form for {@code CompactJsonWriter}.
+     */
+    private static void encodedName(JsonWriter writer, String name) throws IOException {
+        if (writer instanceof CompactJsonWriter compactWriter) {
+            compactWriter.encodedName(CompactJsonWriter.EncodedName.encode(name));
+        } else {
+            writer.name(name);
+        }
+    }
+
+    /**
+     * Performs various writes, mixing regular and pre-encoded names, to verify that
+     * {@code CompactJsonWriter} behaves like {@code JsonWriter} for all of its settings.
+     */
+    private static void writeContract(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        encodedName(writer, "a");
+        writer.beginArray();
+        writer.value(1);
+        writer.nullValue();
+        writer.beginObject();
+        encodedName(writer, "<b>");
+        writer.nullValue();
+        writer.name("c").jsonValue("[1, 2]");
+        encodedName(writer, "d");
+        writer.jsonValue(null);
+        writer.name("e").beginObject().endObject();
+        encodedName(writer, "f");
+        writer.beginArray().endArray();
+        writer.endObject();
+        writer.endArray();
+        encodedName(writer, "g");
+        writer.value((String) null);
+        writer.name("h").value("\u2028<");
+        encodedName(writer, "i");
+        writer.value(2.5f);
+        writer.endObject();
+        writer.close();
+    }
+
+    @Test
+    void testWrite_Contract() throws IOException {
+        assertSameOutput("{\"a\":[1,null,{\"<b>\":null,\"c\":[1, 2],\"d\":null,\"e\":{},\"f\":[]}],\"g\":null,\"h\":\"\\u2028<\",\"i\":2.5}", writer -> {
+            writer.setHtmlSafe(false);
+            writeContract(writer);
+        });
+        assertSameOutput("{\"a\":[1,null,{\"\\u003cb\\u003e\":null,\"c\":[1, 2],\"d\":null,\"e\":{},\"f\":[]}],\"g\":null,\"h\":\"\\u2028\\u003c\",\"i\":2.5}", writer -> {
+            writer.setHtmlSafe(true);
+            writeContract(writer);
+        });
+        assertSameOutput("{\"a\":[1,null,{\"c\":[1, 2],\"e\":{},\"f\":[]}],\"h\":\"\\u2028<\",\"i\":2.5}", writer -> {
+            writer.setSerializeNulls(false);
+            writeContract(writer);
+        });
+        assertSameOutput("""
+            {
+              "a": [
+                1,
+                null,
+                {
+                  "<b>": null,
+                  "c": [1, 2],
+                  "d": null,
+                  "e": {},
+                  "f": []
+                }
+              ],
+              "g": null,
+              "h": "\\u2028<",
+              "i": 2.5
+            }""", writer -> {
+            writer.setIndent("  ");
+            writeContract(writer);
+        });
+        assertSameOutput("[1,2]", writer -> {
+            writer.setLenient(true);
+            writer.setIndent("");
+            writer.jsonValue("[1,2]");
+        });
+
+        // Strict mode
+        for (JsonWriter writer : List.of(new JsonWriter(new StringWriter()), new CompactJsonWriter(new StringWriter()))) {
+            writer.setLenient(false);
+            writer.beginObject();
+            encodedName(writer, "a");
+            // Name without value
+            assertThrows(IllegalStateException.class, () -> encodedName(writer, "b"));
+            writer.nullValue();
+            Exception e = assertThrows(IllegalArgumentException.class, () -> {
+                encodedName(writer, "b");
+                writer.value(Double.NaN);
+            });
+            assertEquals("Numeric values must be finite, but was NaN", e.getMessage());
+        }
+    }
+
+    @Test
+    void testWrite_Invalid() {
+        CompactJsonWriter writer = new CompactJsonWriter(new StringWriter());
+        Exception e = assertThrows(IllegalArgumentException.class, () -> writer.value(Double.NaN));
+        assertEquals("Numeric values must be finite, but was NaN", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> writer.value(Double.valueOf(Double.POSITIVE_INFINITY)));
+        assertEquals("Numeric values must be finite, but was Infinity", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> writer.value(Float.NEGATIVE_INFINITY));
+        assertEquals("Numeric values must be finite, but was -Infinity", e.getMessage());
+
+        CompactJsonWriter writer2 = new CompactJsonWriter(new StringWriter());
+        e = assertThrows(IllegalStateException.class, () -> writer2.name("a").value(1));
+        // Message differs between Gson versions
+        JsonWriter jsonWriter = new JsonWriter(new StringWriter());
+        Exception expected = assertThrows(IllegalStateException.class, () -> jsonWriter.name("a").value(1));
+        assertEquals(expected.getMessage(), e.getMessage());
+
+        CompactJsonWriter writer3 = new CompactJsonWriter(new StringWriter());
+        e = assertThrows(IllegalStateException.class, () -> {
+            writer3.value(1);
+            writer3.value(2);
+        });
+        assertEquals("JSON must have only one top-level value.", e.getMessage());
+
+        CompactJsonWriter writer4 = new CompactJsonWriter(new StringWriter());
+        e = assertThrows(IllegalStateException.class, () -> {
+            writer4.beginObject();
+            writer4.name("a");
+            writer4.endObject();
+        });
+        assertEquals("Dangling name: a", e.getMessage());
+
+        CompactJsonWriter writer5 = new CompactJsonWriter(new StringWriter());
+        e = assertThrows(IllegalStateException.class, () -> {
+            writer5.beginArray();
+            writer5.endObject();
+        });
+        assertEquals("Nesting problem.", e.getMessage());
+
+        CompactJsonWriter writer6 = new CompactJsonWriter(new StringWriter());
+        e = assertThrows(IOException.class, () -> {
+            writer6.beginArray();
+            writer6.close();
+        });
+        assertEquals("Incomplete document", e.getMessage());
+    }
+
+    @Test
+    void testClose() throws IOException {
+        CompactJsonWriter writer = new CompactJsonWriter(new StringWriter());
+        writer.value(1);
+        writer.close();
+        Exception e = assertThrows(IllegalStateException.class, writer::flush);
+        assertEquals("JsonWriter is closed.", e.getMessage());
+        e = assertThrows(IllegalStateException.class, () -> writer.name("a"));
+        assertEquals("JsonWriter is closed.", e.getMessage());
+    }
+
+    @Test
+    void testEncodedName() {
+        CompactJsonWriter.EncodedName name = CompactJsonWriter.EncodedName.encode("a\"<\u2028");
+        assertEquals("\"a\\\"<\\u2028\"", name.encoded);
+        assertEquals("\"a\\\"\\u003c\\u2028\"", name.htmlSafeEncoded);
+    }
+
+    record WithNames(
+        @SerializedName("a\"<b") int i,
+        @SerializedName("c") String s,
+        List<WithNames> nested
+    ) { }
+
+    private static String toJson(Gson gson, Object value, Writer writer) {
+        gson.toJson(value, value.getClass(), new CompactJsonWriter(writer));
+        return writer.toString();
+    }
+
+    @Test
+    void testRecordSerialization() {
+        WithNames value = new WithNames(1, null, Arrays.asList(new WithNames(2, "x", null), null));
+
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+        String expectedJson = "{\"a\\\"\\u003cb\":1,\"nested\":[{\"a\\\"\\u003cb\":2,\"c\":\"x\"},null]}";
+        assertEquals(expectedJson, gson.toJson(value));
+        assertEquals(expectedJson, toJson(gson, value, new StringWriter()));
+
+        gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .disableHtmlEscaping()
+            .serializeNulls()
+            .create();
+        expectedJson = "{\"a\\\"<b\":1,\"c\":null,\"nested\":[{\"a\\\"<b\":2,\"c\":\"x\",\"nested\":null},null]}";
+        assertEquals(expectedJson, gson.toJson(value));
+        assertEquals(expectedJson, toJson(gson, value, new StringWriter()));
+
+        gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .setPrettyPrinting()
+            .create();
+        expectedJson = """
+            {
+              "a\\"\\u003cb": 1,
+              "nested": [
+                {
+                  "a\\"\\u003cb": 2,
+                  "c": "x"
+                },
+                null
+              ]
+            }""";
+        assertEquals(expectedJson, gson.toJson(value));
+        StringWriter writer = new StringWriter();
+        CompactJsonWriter jsonWriter = new CompactJsonWriter(writer);
+        jsonWriter.setIndent("  ");
+        gson.toJson(value, value.getClass(), jsonWriter);
+        assertEquals(expectedJson, writer.toString());
+    }
+}
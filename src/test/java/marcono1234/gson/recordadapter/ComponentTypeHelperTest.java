@@ -8,6 +8,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
@@ -15,6 +17,7 @@ import java.lang.reflect.WildcardType;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -22,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
@@ -71,6 +75,89 @@ class ComponentTypeHelperTest {
         }
     }
 
+    record Generic<T>(T t, List<T> l) { }
+
+    @Test
+    void testResolvedTypesCache() {
+        ComponentTypeHelper.ResolvedTypesCache cache = new ComponentTypeHelper.ResolvedTypesCache(Generic.class, getComponentTypes(Generic.class), 2);
+        CacheStatistics initialStatistics = RecordTypeAdapterFactory.getComponentTypesCacheStatistics();
+
+        Type[] resolvedTypes = cache.resolve(new TypeToken<Generic<N>>() {});
+        assertArrayEquals(getResolvedComponentTypes(new TypeToken<Generic<N>>() {}), resolvedTypes);
+        // Equal TypeToken should use cached result
+        assertSame(resolvedTypes, cache.resolve(new TypeToken<Generic<N>>() {}));
+        assertEquals(1, cache.size());
+
+        Type[] stringTypes = cache.resolve(new TypeToken<Generic<String>>() {});
+        cache.resolve(new TypeToken<Generic<Integer>>() {});
+        // Should have evicted one entry; the recently used entry for Generic<N> is kept
+        assertEquals(2, cache.size());
+        assertSame(resolvedTypes, cache.resolve(new TypeToken<Generic<N>>() {}));
+        assertNotSame(stringTypes, cache.resolve(new TypeToken<Generic<String>>() {}));
+
+        CacheStatistics statistics = RecordTypeAdapterFactory.getComponentTypesCacheStatistics();
+        assertEquals(2, statistics.hits() - initialStatistics.hits());
+        assertEquals(4, statistics.misses() - initialStatistics.misses());
+        assertEquals(2, statistics.evictions() - initialStatistics.evictions());
+    }
+
+    /** Class loader which loads {@link N} itself instead of delegating to its parent */
+    private static class ChildClassLoader extends ClassLoader {
+        ChildClassLoader() {
+            super(ComponentTypeHelperTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(N.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c != null) {
+                    return c;
+                }
+                try (InputStream in = N.class.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+                    byte[] bytes = Objects.requireNonNull(in).readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testResolvedTypesCache_ChildClassLoader() throws Exception {
+        Class<?> childN = new ChildClassLoader().loadClass(N.class.getName());
+        assertNotSame(N.class, childN);
+
+        ComponentTypeHelper.ResolvedTypesCache cache = new ComponentTypeHelper.ResolvedTypesCache(Generic.class, getComponentTypes(Generic.class), 2);
+        TypeToken<?> typeToken = TypeToken.getParameterized(Generic.class, childN);
+        Type[] resolvedTypes = cache.resolve(typeToken);
+        assertEquals(childN, resolvedTypes[0]);
+        // Should not cache type referring to class of child class loader
+        assertEquals(0, cache.size());
+
+        TypeToken<?> nestedTypeToken = TypeToken.getParameterized(Generic.class, TypeToken.getParameterized(List.class, childN).getType());
+        cache.resolve(nestedTypeToken);
+        assertEquals(0, cache.size());
+
+        // Classes of ancestor class loaders can be cached
+        cache.resolve(TypeToken.getParameterized(Generic.class, String.class));
+        cache.resolve(TypeToken.getParameterized(Generic.class, N.class));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testResolvedTypesCache_NonGeneric() {
+        Type[] componentTypes = getComponentTypes(N.class);
+        ComponentTypeHelper.ResolvedTypesCache cache = new ComponentTypeHelper.ResolvedTypesCache(N.class, componentTypes, 2);
+        assertSame(componentTypes, cache.resolve(TypeToken.get(N.class)));
+        // Should not cache anything
+        assertEquals(0, cache.size());
+    }
+
     // Use PER_CLASS to support non-static method for @MethodSource
     @TestInstance(PER_CLASS)
     private interface TypeImplTestBase {
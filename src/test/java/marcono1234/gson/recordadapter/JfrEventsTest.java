@@ -0,0 +1,166 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.JsonAdapter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class JfrEventsTest {
+    private static List<RecordedEvent> record(Consumer<Recording> configurer, Runnable action) throws IOException {
+        Path file = Files.createTempFile("record-adapter-test", ".jfr");
+        try (Recording recording = new Recording()) {
+            configurer.accept(recording);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<RecordedEvent> filter(List<RecordedEvent> events, String eventName) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(eventName)).toList();
+    }
+
+    record Point(int x, int y) { }
+
+    record WithAdapter(@JsonAdapter(JsonAdapterTest.Adapter.class) String s, Point p) { }
+
+    @Test
+    void testDisabledByDefault() throws IOException {
+        List<RecordedEvent> events = record(r -> { }, () -> {
+            Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+                .create();
+            gson.fromJson(gson.toJson(new Point(1, 2)), Point.class);
+        });
+        assertEquals(List.of(), filter(events, JfrEvents.AdapterCreationEvent.NAME));
+        assertEquals(List.of(), filter(events, JfrEvents.RecordReadEvent.NAME));
+        assertEquals(List.of(), filter(events, JfrEvents.RecordWriteEvent.NAME));
+    }
+
+    @Test
+    void testAdapterCreationEvent() throws IOException {
+        JsonAdapterCreator creator = new JsonAdapterCreator() {
+            @Override
+            public Optional<Object> create(Class<?> c) {
+                return c == JsonAdapterTest.Adapter.class ? Optional.of(new JsonAdapterTest.Adapter("custom")) : Optional.empty();
+            }
+
+            @Override
+            public String toString() {
+                return "custom-creator";
+            }
+        };
+
+        List<RecordedEvent> events = record(r -> r.enable(JfrEvents.AdapterCreationEvent.NAME), () -> {
+            Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().registerJsonAdapterCreator(creator).create())
+                .create();
+            gson.getAdapter(WithAdapter.class);
+        });
+        events = filter(events, JfrEvents.AdapterCreationEvent.NAME);
+        assertEquals(2, events.size());
+
+        // Adapter for nested Record is created first
+        RecordedEvent pointEvent = events.get(0);
+        assertEquals(Point.class.getName(), pointEvent.getClass("recordType").getName());
+        assertEquals(2, pointEvent.getInt("componentsCount"));
+        assertEquals("", pointEvent.getString("jsonAdapterCreators"));
+
+        RecordedEvent event = events.get(1);
+        assertEquals(WithAdapter.class.getName(), event.getClass("recordType").getName());
+        assertEquals(2, event.getInt("componentsCount"));
+        assertEquals("custom-creator", event.getString("jsonAdapterCreators"));
+        assertFalse(event.getDuration().isNegative());
+    }
+
+    @Test
+    void testReadWriteEvents() throws IOException {
+        List<RecordedEvent> events = record(r -> {
+            r.enable(JfrEvents.RecordReadEvent.NAME);
+            r.enable(JfrEvents.RecordWriteEvent.NAME);
+        }, () -> {
+            Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+                .create();
+            gson.toJson(new Point(1, 2));
+            gson.fromJson("{\"x\":1,\"unknown\":true,\"y\":2}", Point.class);
+        });
+
+        List<RecordedEvent> writeEvents = filter(events, JfrEvents.RecordWriteEvent.NAME);
+        assertEquals(1, writeEvents.size());
+        assertEquals(Point.class.getName(), writeEvents.get(0).getClass("recordType").getName());
+        assertEquals(2, writeEvents.get(0).getInt("propertiesCount"));
+
+        List<RecordedEvent> readEvents = filter(events, JfrEvents.RecordReadEvent.NAME);
+        assertEquals(1, readEvents.size());
+        assertEquals(Point.class.getName(), readEvents.get(0).getClass("recordType").getName());
+        // Includes unknown property
+        assertEquals(3, readEvents.get(0).getInt("propertiesCount"));
+    }
+
+    @Test
+    void testReadWriteEvents_Binary() throws IOException {
+        List<RecordedEvent> events = record(r -> {
+            r.enable(JfrEvents.RecordReadEvent.NAME);
+            r.enable(JfrEvents.RecordWriteEvent.NAME);
+        }, () -> {
+            Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+                .create();
+            RecordBinaryCodec<Point> codec = RecordBinaryCodec.create(gson, Point.class);
+            codec.decode(codec.encode(new Point(1, 2)));
+        });
+
+        List<RecordedEvent> writeEvents = filter(events, JfrEvents.RecordWriteEvent.NAME);
+        assertEquals(1, writeEvents.size());
+        assertEquals(Point.class.getName(), writeEvents.get(0).getClass("recordType").getName());
+        assertEquals(2, writeEvents.get(0).getInt("propertiesCount"));
+
+        List<RecordedEvent> readEvents = filter(events, JfrEvents.RecordReadEvent.NAME);
+        assertEquals(1, readEvents.size());
+        assertEquals(Point.class.getName(), readEvents.get(0).getClass("recordType").getName());
+        assertEquals(2, readEvents.get(0).getInt("propertiesCount"));
+    }
+
+    @Test
+    void testReadWriteEvents_Columnar() throws IOException {
+        List<RecordedEvent> events = record(r -> {
+            r.enable(JfrEvents.RecordReadEvent.NAME);
+            r.enable(JfrEvents.RecordWriteEvent.NAME);
+        }, () -> {
+            Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().useColumnarEncoding(Point.class).create())
+                .create();
+            gson.toJson(new Point[] {new Point(1, 2), new Point(3, 4)});
+            gson.fromJson("{\"x\":[1,3],\"unknown\":true,\"y\":[2,4]}", Point[].class);
+        });
+
+        // Single event for all Records
+        List<RecordedEvent> writeEvents = filter(events, JfrEvents.RecordWriteEvent.NAME);
+        assertEquals(1, writeEvents.size());
+        assertEquals(Point.class.getName(), writeEvents.get(0).getClass("recordType").getName());
+        assertEquals(2, writeEvents.get(0).getInt("propertiesCount"));
+
+        List<RecordedEvent> readEvents = filter(events, JfrEvents.RecordReadEvent.NAME);
+        assertEquals(1, readEvents.size());
+        assertEquals(Point.class.getName(), readEvents.get(0).getClass("recordType").getName());
+        assertEquals(3, readEvents.get(0).getInt("propertiesCount"));
+    }
+}
@@ -1,6 +1,7 @@
 package marcono1234.gson.recordadapter;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -24,6 +25,7 @@ import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static marcono1234.gson.recordadapter.RecordTypeAdapterFactoryTest.getAdapter;
 import static marcono1234.gson.recordadapter.RecordTypeAdapterFactoryTest.getDefaultAdapter;
@@ -69,6 +71,20 @@ class JsonAdapterTest {
         assertEquals(new WithCustomAdapter("read:a"), typeAdapter.fromJson("{\"s\":\"a\"}"));
     }
 
+    record WithMismatchingAdapter(
+        @JsonAdapter(Adapter.class)
+        int i
+    ) { }
+
+    /** Adapter returning value of wrong type should cause exception when creating record */
+    @Test
+    void testMismatchingAdapter() {
+        TypeAdapter<WithMismatchingAdapter> typeAdapter = getDefaultAdapter(WithMismatchingAdapter.class);
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"i\":\"a\"}"));
+        assertEquals("Failed creating record instance for " + WithMismatchingAdapter.class, e.getMessage());
+        assertTrue(e.getCause() instanceof ClassCastException);
+    }
+
     @Test
     void testCustomAdapterCreator() throws IOException {
         TypeAdapter<WithCustomAdapter> typeAdapter = getAdapter(
@@ -126,6 +142,50 @@ class JsonAdapterTest {
         assertEquals(new WithCustomAdapter("read:a"), typeAdapter.fromJson("{\"s\":\"a\"}"));
     }
 
+    record WithMultipleCustomAdapters(
+        @JsonAdapter(Adapter.class)
+        String s1,
+        @JsonAdapter(Adapter.class)
+        String s2,
+        WithCustomAdapter nested
+    ) { }
+
+    @Test
+    void testCacheJsonAdapterInstances() {
+        AtomicInteger creatorCalls = new AtomicInteger(0);
+        RecordTypeAdapterFactory factory = RecordTypeAdapterFactory.builder()
+            .registerJsonAdapterCreator(c -> {
+                assertEquals(Adapter.class, c);
+                return Optional.of(new Adapter("creator-" + creatorCalls.incrementAndGet() + "-"));
+            })
+            .cacheJsonAdapterInstances()
+            .create();
+
+        // Instance should be shared by all components and Gson instances
+        for (int i = 0; i < 2; i++) {
+            Gson gson = new GsonBuilder().registerTypeAdapterFactory(factory).create();
+            assertEquals(
+                "{\"s1\":\"creator-1-write:a\",\"s2\":\"creator-1-write:b\",\"nested\":{\"s\":\"creator-1-write:c\"}}",
+                gson.toJson(new WithMultipleCustomAdapters("a", "b", new WithCustomAdapter("c")))
+            );
+        }
+        assertEquals(1, creatorCalls.get());
+    }
+
+    @Test
+    void testCacheJsonAdapterInstances_Disabled() {
+        AtomicInteger creatorCalls = new AtomicInteger(0);
+        RecordTypeAdapterFactory factory = RecordTypeAdapterFactory.builder()
+            .registerJsonAdapterCreator(c -> {
+                creatorCalls.incrementAndGet();
+                return Optional.of(new Adapter());
+            })
+            .create();
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(factory).create();
+        gson.getAdapter(WithMultipleCustomAdapters.class);
+        assertEquals(3, creatorCalls.get());
+    }
+
     static class AdapterWithoutDefaultConstructor {
         @SuppressWarnings("unused")
         public AdapterWithoutDefaultConstructor(int i) { }
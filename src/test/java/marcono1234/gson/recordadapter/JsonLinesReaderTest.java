@@ -0,0 +1,110 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonLinesReaderTest {
+    private static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+        .create();
+
+    record R(int i, String s) { }
+
+    @Test
+    void testIterator() throws IOException {
+        try (JsonLinesReader<R> reader = new JsonLinesReader<>(GSON, R.class, new StringReader("{\"i\":1,\"s\":\"a\"}\n{\"i\":2,\"s\":\"b\"}\n"))) {
+            assertTrue(reader.hasNext());
+            // hasNext() should not consume data
+            assertTrue(reader.hasNext());
+            assertEquals(new R(1, "a"), reader.next());
+            assertEquals(new R(2, "b"), reader.next());
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @Test
+    void testStream() {
+        String data = "{\"i\":1,\"s\":\"a\"}\r\n{\"i\":2,\"s\":\"b\"}\n\n{\"i\":3,\"s\":\"c\"}";
+        AtomicBoolean isClosed = new AtomicBoolean(false);
+        Reader reader = new StringReader(data) {
+            @Override
+            public void close() {
+                isClosed.set(true);
+                super.close();
+            }
+        };
+        List<R> records;
+        try (Stream<R> stream = new JsonLinesReader<>(GSON, R.class, reader).stream()) {
+            records = stream.toList();
+            assertFalse(isClosed.get());
+        }
+        assertEquals(List.of(new R(1, "a"), new R(2, "b"), new R(3, "c")), records);
+        assertTrue(isClosed.get());
+    }
+
+    @Test
+    void testEmpty() throws IOException {
+        try (JsonLinesReader<R> reader = new JsonLinesReader<>(GSON, R.class, new StringReader(""))) {
+            assertFalse(reader.hasNext());
+        }
+        try (JsonLinesReader<R> reader = new JsonLinesReader<>(GSON, R.class, new StringReader("\n \n"))) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void testGeneric() throws IOException {
+        try (JsonLinesReader<List<R>> reader = new JsonLinesReader<>(GSON, new TypeToken<List<R>>() {}, new StringReader("[{\"i\":1,\"s\":\"a\"}]\n[]"))) {
+            List<List<R>> values = new ArrayList<>();
+            reader.forEachRemaining(values::add);
+            assertEquals(List.of(List.of(new R(1, "a")), List.of()), values);
+        }
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        try (JsonLinesReader<R> reader = new JsonLinesReader<>(GSON, R.class, new StringReader("{\"i\":1,\"s\":\"a\"}\n{\"i\":2,\n"))) {
+            assertEquals(new R(1, "a"), reader.next());
+            assertThrows(JsonSyntaxException.class, reader::next);
+        }
+
+        try (JsonLinesReader<R> reader = new JsonLinesReader<>(GSON, R.class, new StringReader("[1]"))) {
+            assertThrows(JsonSyntaxException.class, reader::next);
+        }
+    }
+
+    @Test
+    void testIOException() {
+        Reader reader = new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("test");
+            }
+
+            @Override
+            public void close() { }
+        };
+        JsonLinesReader<R> jsonLinesReader = new JsonLinesReader<>(GSON, R.class, reader);
+        JsonIOException e = assertThrows(JsonIOException.class, jsonLinesReader::hasNext);
+        assertEquals("test", e.getCause().getMessage());
+    }
+}
@@ -0,0 +1,80 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonLinesWriterTest {
+    private static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+        .create();
+
+    record R(int i, String s) { }
+
+    @Test
+    void testWrite() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        try (JsonLinesWriter<R> writer = new JsonLinesWriter<>(GSON, R.class, stringWriter)) {
+            writer.write(new R(1, "a"));
+            writer.write(new R(2, null));
+            writer.write(null);
+        }
+        assertEquals("{\"i\":1,\"s\":\"a\"}\n{\"i\":2}\nnull\n", stringWriter.toString());
+    }
+
+    @Test
+    void testEmpty() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        // Should not fail when closing without having written any value
+        new JsonLinesWriter<>(GSON, R.class, stringWriter).close();
+        assertEquals("", stringWriter.toString());
+    }
+
+    @Test
+    void testGsonSettings() throws IOException {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .serializeNulls()
+            .disableHtmlEscaping()
+            // Should have no effect
+            .setPrettyPrinting()
+            .create();
+        StringWriter stringWriter = new StringWriter();
+        try (JsonLinesWriter<R> writer = new JsonLinesWriter<>(gson, R.class, stringWriter)) {
+            writer.write(new R(1, "<"));
+            writer.write(new R(2, null));
+        }
+        assertEquals("{\"i\":1,\"s\":\"<\"}\n{\"i\":2,\"s\":null}\n", stringWriter.toString());
+
+        stringWriter = new StringWriter();
+        try (JsonLinesWriter<R> writer = new JsonLinesWriter<>(GSON, R.class, stringWriter)) {
+            writer.write(new R(1, "<"));
+        }
+        assertEquals("{\"i\":1,\"s\":\"\\u003c\"}\n", stringWriter.toString());
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<R> records = List.of(new R(1, "a\nb"), new R(2, "c"), new R(3, ""));
+        StringWriter stringWriter = new StringWriter();
+        try (JsonLinesWriter<R> writer = new JsonLinesWriter<>(GSON, R.class, stringWriter)) {
+            for (R r : records) {
+                writer.write(r);
+            }
+        }
+        // Line breaks in strings must be escaped
+        assertEquals(records.size(), stringWriter.toString().split("\n").length);
+
+        try (Stream<R> stream = new JsonLinesReader<>(GSON, R.class, new StringReader(stringWriter.toString())).stream()) {
+            assertEquals(records, stream.toList());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelJsonLinesReaderTest {
+    private static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+        .create();
+
+    record R(int i, String s) { }
+
+    private static List<R> createRecords(int count) {
+        List<R> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Vary length of lines
+            records.add(new R(i, "a".repeat(i % 50)));
+        }
+        return records;
+    }
+
+    private static String toJsonLines(List<R> records) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (R r : records) {
+            stringBuilder.append(GSON.toJson(r)).append('\n');
+        }
+        return stringBuilder.toString();
+    }
+
+    private interface ExecutorTest {
+        void run(ExecutorService executor) throws Exception;
+    }
+
+    private static void withExecutor(ExecutorTest test) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            test.run(executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReadOrdered() throws Exception {
+        List<R> records = createRecords(1000);
+        String data = toJsonLines(records);
+        withExecutor(executor -> {
+            // Small chunk size to have many chunks, and to have lines which are longer than the chunk size
+            for (int chunkSize : new int[] {1, 16, 100, 100_000}) {
+                for (int maxPendingChunks : new int[] {1, 3, 100}) {
+                    ParallelJsonLinesReader<R> reader = new ParallelJsonLinesReader<>(GSON, TypeToken.get(R.class), executor, chunkSize, maxPendingChunks);
+                    List<R> actual = new ArrayList<>();
+                    reader.readOrdered(new StringReader(data), actual::add);
+                    assertEquals(records, actual);
+                }
+            }
+        });
+    }
+
+    @Test
+    void testReadUnordered() throws Exception {
+        List<R> records = createRecords(1000);
+        String data = toJsonLines(records);
+        withExecutor(executor -> {
+            for (int chunkSize : new int[] {1, 16, 100, 100_000}) {
+                for (int maxPendingChunks : new int[] {1, 3, 100}) {
+                    ParallelJsonLinesReader<R> reader = new ParallelJsonLinesReader<>(GSON, TypeToken.get(R.class), executor, chunkSize, maxPendingChunks);
+                    List<R> actual = new ArrayList<>();
+                    reader.readUnordered(new StringReader(data), actual::add);
+                    actual.sort(Comparator.comparingInt(R::i));
+                    assertEquals(records, actual);
+                }
+            }
+        });
+    }
+
+    @Test
+    void testSplitChunks_LongLine() throws Exception {
+        int chunkSize = 100;
+        String longLine = "a".repeat(chunkSize * 10) + "\n";
+        String shortLines = "bbbbbbbbbbbbbbbbbbb\n".repeat(1000);
+        String data = "cc\n" + longLine + shortLines + longLine + longLine + "d";
+
+        List<String> chunks = new ArrayList<>();
+        // Reader which only provides a few characters at once, to cover searching for the line end in multiple reads
+        Reader reader = new Reader() {
+            private final StringReader delegate = new StringReader(data);
+
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return delegate.read(cbuf, off, Math.min(len, 7));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        ParallelJsonLinesReader.splitChunks(reader, chunkSize, chunks::add);
+        assertEquals(data, String.join("", chunks));
+
+        assertEquals("cc\n", chunks.get(0));
+        assertEquals(longLine, chunks.get(1));
+        // Short lines after long line must be split according to chunk size again
+        int longLinesCount = 0;
+        for (String chunk : chunks.subList(2, chunks.size())) {
+            if (chunk.equals(longLine)) {
+                longLinesCount++;
+            } else {
+                assertTrue(chunk.length() <= chunkSize, "Chunk too large: " + chunk.length());
+                assertTrue(chunk.length() >= chunkSize - 20 || chunk.equals("d"), "Chunk too small: " + chunk.length());
+            }
+        }
+        assertEquals(2, longLinesCount);
+        assertEquals("d", chunks.get(chunks.size() - 1));
+    }
+
+    @Test
+    void testNoTrailingLineBreak() throws Exception {
+        withExecutor(executor -> {
+            ParallelJsonLinesReader<R> reader = new ParallelJsonLinesReader<>(GSON, R.class, executor);
+            List<R> actual = new ArrayList<>();
+            reader.readOrdered(new StringReader("{\"i\":1,\"s\":\"a\"}\r\n{\"i\":2,\"s\":\"b\"}"), actual::add);
+            assertEquals(List.of(new R(1, "a"), new R(2, "b")), actual);
+
+            actual.clear();
+            reader.readOrdered(new StringReader(""), actual::add);
+            assertEquals(List.of(), actual);
+        });
+    }
+
+    @Test
+    void testMalformed() throws Exception {
+        List<R> records = createRecords(100);
+        String data = toJsonLines(records) + "{\"i\":\n" + toJsonLines(records);
+        withExecutor(executor -> {
+            ParallelJsonLinesReader<R> reader = new ParallelJsonLinesReader<>(GSON, TypeToken.get(R.class), executor, 64, 2);
+            List<R> actual = new ArrayList<>();
+            assertThrows(JsonSyntaxException.class, () -> reader.readOrdered(new StringReader(data), actual::add));
+            // Values of chunks before the malformed one should have been provided in order
+            assertEquals(records.subList(0, actual.size()), actual);
+            assertTrue(actual.size() <= records.size());
+
+            assertThrows(JsonSyntaxException.class, () -> reader.readUnordered(new StringReader(data), r -> { }));
+        });
+    }
+
+    @Test
+    void testConsumerException() throws Exception {
+        withExecutor(executor -> {
+            ParallelJsonLinesReader<R> reader = new ParallelJsonLinesReader<>(GSON, R.class, executor);
+            IllegalStateException expected = new IllegalStateException("test");
+            Exception e = assertThrows(IllegalStateException.class, () -> reader.readUnordered(new StringReader(toJsonLines(createRecords(10))), r -> {
+                throw expected;
+            }));
+            assertEquals(expected, e);
+        });
+    }
+
+    @Test
+    void testInvalidArguments() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> new ParallelJsonLinesReader<>(GSON, TypeToken.get(R.class), Runnable::run, 0, 1));
+        assertEquals("Invalid chunk size: 0", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> new ParallelJsonLinesReader<>(GSON, TypeToken.get(R.class), Runnable::run, 1, 0));
+        assertEquals("Invalid max pending chunks: 0", e.getMessage());
+    }
+}
@@ -0,0 +1,100 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.LongSerializationPolicy;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrimitiveKindTest {
+    @Test
+    void testForBuiltInAdapter() {
+        Gson gson = new Gson();
+        assertEquals(PrimitiveKind.INT, PrimitiveKind.forBuiltInAdapter(int.class, gson.getAdapter(int.class)));
+        assertEquals(PrimitiveKind.LONG, PrimitiveKind.forBuiltInAdapter(long.class, gson.getAdapter(long.class)));
+        assertEquals(PrimitiveKind.FLOAT, PrimitiveKind.forBuiltInAdapter(float.class, gson.getAdapter(float.class)));
+        assertEquals(PrimitiveKind.DOUBLE, PrimitiveKind.forBuiltInAdapter(double.class, gson.getAdapter(double.class)));
+        assertEquals(PrimitiveKind.BOOLEAN, PrimitiveKind.forBuiltInAdapter(boolean.class, gson.getAdapter(boolean.class)));
+
+        // Types without primitive kind
+        assertNull(PrimitiveKind.forBuiltInAdapter(byte.class, gson.getAdapter(byte.class)));
+        assertNull(PrimitiveKind.forBuiltInAdapter(char.class, gson.getAdapter(char.class)));
+
+        Gson specialFloatingPointGson = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+        assertEquals(PrimitiveKind.INT, PrimitiveKind.forBuiltInAdapter(int.class, specialFloatingPointGson.getAdapter(int.class)));
+        assertEquals(PrimitiveKind.FLOAT_ALLOW_SPECIAL, PrimitiveKind.forBuiltInAdapter(float.class, specialFloatingPointGson.getAdapter(float.class)));
+        assertEquals(PrimitiveKind.DOUBLE_ALLOW_SPECIAL, PrimitiveKind.forBuiltInAdapter(double.class, specialFloatingPointGson.getAdapter(double.class)));
+    }
+
+    @Test
+    void testForBuiltInAdapter_Custom() {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapter(int.class, new TypeAdapter<Integer>() {
+                @Override
+                public void write(JsonWriter out, Integer value) {
+                    throw new AssertionError("Not needed for this test");
+                }
+
+                @Override
+                public Integer read(JsonReader in) {
+                    throw new AssertionError("Not needed for this test");
+                }
+            })
+            .setLongSerializationPolicy(LongSerializationPolicy.STRING)
+            .create();
+        assertNull(PrimitiveKind.forBuiltInAdapter(int.class, gson.getAdapter(int.class)));
+        assertNull(PrimitiveKind.forBuiltInAdapter(long.class, gson.getAdapter(long.class)));
+    }
+
+    private static long read(PrimitiveKind kind, String json) throws IOException {
+        return kind.read(new JsonReader(new StringReader(json)));
+    }
+
+    @Test
+    void testRead() throws Throwable {
+        assertEquals(-1, (int) PrimitiveKind.INT.fromSlot().invokeExact(read(PrimitiveKind.INT, "-1")));
+        assertEquals(Long.MAX_VALUE, (long) PrimitiveKind.LONG.fromSlot().invokeExact(read(PrimitiveKind.LONG, "9223372036854775807")));
+        assertEquals(1.1f, (float) PrimitiveKind.FLOAT.fromSlot().invokeExact(read(PrimitiveKind.FLOAT, "1.1")));
+        assertEquals(-0.0, (double) PrimitiveKind.DOUBLE.fromSlot().invokeExact(read(PrimitiveKind.DOUBLE, "-0.0")));
+        assertEquals(true, (boolean) PrimitiveKind.BOOLEAN.fromSlot().invokeExact(read(PrimitiveKind.BOOLEAN, "true")));
+        // Gson also supports boolean as string
+        assertEquals(true, (boolean) PrimitiveKind.BOOLEAN.fromSlot().invokeExact(read(PrimitiveKind.BOOLEAN, "\"true\"")));
+        assertEquals(false, (boolean) PrimitiveKind.BOOLEAN.fromSlot().invokeExact(read(PrimitiveKind.BOOLEAN, "false")));
+    }
+
+    private static String write(PrimitiveKind kind, long value) throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        JsonWriter jsonWriter = new JsonWriter(stringWriter);
+        jsonWriter.setLenient(true);
+        kind.write(jsonWriter, value);
+        return stringWriter.toString();
+    }
+
+    @Test
+    void testWrite() throws Throwable {
+        assertEquals("-1", write(PrimitiveKind.INT, (long) PrimitiveKind.INT.toSlot().invokeExact(-1)));
+        assertEquals("9223372036854775807", write(PrimitiveKind.LONG, (long) PrimitiveKind.LONG.toSlot().invokeExact(Long.MAX_VALUE)));
+        // Should not write float as double, which would be 1.100000023841858
+        assertEquals("1.1", write(PrimitiveKind.FLOAT, (long) PrimitiveKind.FLOAT.toSlot().invokeExact(1.1f)));
+        assertEquals("-0.0", write(PrimitiveKind.DOUBLE, (long) PrimitiveKind.DOUBLE.toSlot().invokeExact(-0.0)));
+        assertEquals("true", write(PrimitiveKind.BOOLEAN, (long) PrimitiveKind.BOOLEAN.toSlot().invokeExact(true)));
+        assertEquals("false", write(PrimitiveKind.BOOLEAN, (long) PrimitiveKind.BOOLEAN.toSlot().invokeExact(false)));
+
+        assertEquals("NaN", write(PrimitiveKind.FLOAT_ALLOW_SPECIAL, (long) PrimitiveKind.FLOAT.toSlot().invokeExact(Float.NaN)));
+        assertEquals("-Infinity", write(PrimitiveKind.DOUBLE_ALLOW_SPECIAL, (long) PrimitiveKind.DOUBLE.toSlot().invokeExact(Double.NEGATIVE_INFINITY)));
+
+        long nanSlot = (long) PrimitiveKind.DOUBLE.toSlot().invokeExact(Double.NaN);
+        Exception e = assertThrows(IllegalArgumentException.class, () -> write(PrimitiveKind.DOUBLE, nanSlot));
+        assertEquals("NaN is not a valid double value as per JSON specification. To override this behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.", e.getMessage());
+    }
+}
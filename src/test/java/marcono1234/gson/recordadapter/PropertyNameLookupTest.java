@@ -0,0 +1,70 @@
+package marcono1234.gson.recordadapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertyNameLookupTest {
+    private static void assertLookup(Map<String, Integer> nameToIndex, PropertyNameLookup lookup) {
+        for (Map.Entry<String, Integer> entry : nameToIndex.entrySet()) {
+            // Use new String instance to make sure lookup does not depend on identity
+            assertEquals((int) entry.getValue(), lookup.get(new String(entry.getKey())));
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        PropertyNameLookup lookup = PropertyNameLookup.create(Map.of());
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get(""));
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get("a"));
+    }
+
+    @Test
+    void testPerfect() {
+        Map<String, Integer> nameToIndex = Map.of(
+            "", 0,
+            "a", 1,
+            "name", 2,
+            "value", 3
+        );
+        PropertyNameLookup lookup = PropertyNameLookup.create(nameToIndex);
+        assertTrue(lookup.isPerfect());
+        assertLookup(nameToIndex, lookup);
+
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get("b"));
+        // Same length, first and last char as existing name
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get("nxxe"));
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get("values"));
+    }
+
+    @Test
+    void testFallback() {
+        // All names have same length, first and last char; cheap hash cannot distinguish them
+        Map<String, Integer> nameToIndex = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            nameToIndex.put("a" + (char) ('a' + i) + "z", i);
+        }
+        PropertyNameLookup lookup = PropertyNameLookup.create(nameToIndex);
+        assertFalse(lookup.isPerfect());
+        assertLookup(nameToIndex, lookup);
+
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get("a_z"));
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get("abcz"));
+    }
+
+    @Test
+    void testMany() {
+        Map<String, Integer> nameToIndex = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            nameToIndex.put("component" + i, i);
+        }
+        PropertyNameLookup lookup = PropertyNameLookup.create(nameToIndex);
+        assertLookup(nameToIndex, lookup);
+        assertEquals(PropertyNameLookup.NOT_FOUND, lookup.get("component500"));
+    }
+}
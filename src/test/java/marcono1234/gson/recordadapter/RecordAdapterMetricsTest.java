@@ -0,0 +1,156 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordAdapterMetricsTest {
+    /** Records all callbacks as strings */
+    private static class RecordingMetrics implements RecordAdapterMetrics {
+        final List<String> calls = new ArrayList<>();
+        final List<Long> durations = new ArrayList<>();
+        Throwable constructorException;
+
+        @Override
+        public void recordRead(Class<? extends Record> recordClass, long durationNanos) {
+            calls.add("read " + recordClass.getSimpleName());
+            durations.add(durationNanos);
+        }
+
+        @Override
+        public void recordWritten(Class<? extends Record> recordClass, long durationNanos) {
+            calls.add("written " + recordClass.getSimpleName());
+            durations.add(durationNanos);
+        }
+
+        @Override
+        public void unknownPropertySkipped(Class<? extends Record> recordClass, String propertyName) {
+            calls.add("unknown " + recordClass.getSimpleName() + " " + propertyName);
+        }
+
+        @Override
+        public void duplicateComponentValue(Class<? extends Record> recordClass, RecordComponent component) {
+            calls.add("duplicate " + recordClass.getSimpleName() + " " + component.getName());
+        }
+
+        @Override
+        public void missingComponentValue(Class<? extends Record> recordClass, RecordComponent component) {
+            calls.add("missing " + recordClass.getSimpleName() + " " + component.getName());
+        }
+
+        @Override
+        public void constructorFailed(Class<? extends Record> recordClass, Throwable exception) {
+            calls.add("constructor " + recordClass.getSimpleName());
+            constructorException = exception;
+        }
+    }
+
+    record Inner(int i) { }
+
+    record Outer(String s, Inner inner) { }
+
+    @Test
+    void testReadWrite() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().withMetrics(metrics).create())
+            .create();
+
+        assertEquals("{\"s\":\"a\",\"inner\":{\"i\":1}}", gson.toJson(new Outer("a", new Inner(1))));
+        assertEquals(List.of("written Inner", "written Outer"), metrics.calls);
+
+        metrics.calls.clear();
+        assertEquals(new Outer("a", new Inner(1)), gson.fromJson("{\"s\":\"a\",\"x\":true,\"inner\":{\"i\":1,\"y\":null}}", Outer.class));
+        assertEquals(List.of("unknown Outer x", "unknown Inner y", "read Inner", "read Outer"), metrics.calls);
+
+        for (long duration : metrics.durations) {
+            assertTrue(duration >= 0);
+        }
+        // Outer includes the duration of Inner
+        assertTrue(metrics.durations.get(3) >= metrics.durations.get(2));
+    }
+
+    @Test
+    void testArrayEncoding() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().useArrayEncoding().withMetrics(metrics).create())
+            .create();
+
+        // Additional array elements are reported like unknown properties
+        assertEquals(new Inner(1), gson.fromJson("[1,2,[3]]", Inner.class));
+        assertEquals(List.of("unknown Inner [1]", "unknown Inner [2]", "read Inner"), metrics.calls);
+    }
+
+    @Test
+    void testDuplicateMissing() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder()
+                .allowDuplicateComponentValues()
+                .allowMissingComponentValues()
+                .withMetrics(metrics)
+                .create()
+            )
+            .create();
+
+        assertEquals(new Outer("b", null), gson.fromJson("{\"s\":\"a\",\"s\":\"b\"}", Outer.class));
+        assertEquals(List.of("duplicate Outer s", "missing Outer inner", "read Outer"), metrics.calls);
+    }
+
+    @Test
+    void testDuplicateMissing_Disallowed() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().withMetrics(metrics).create())
+            .create();
+
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"s\":\"a\",\"s\":\"b\"}", Outer.class));
+        assertEquals(List.of("duplicate Outer s"), metrics.calls);
+
+        metrics.calls.clear();
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"s\":\"a\"}", Outer.class));
+        assertEquals(List.of("missing Outer inner"), metrics.calls);
+    }
+
+    record Validating(int i) {
+        Validating {
+            if (i < 0) {
+                throw new IllegalArgumentException("negative");
+            }
+        }
+    }
+
+    @Test
+    void testConstructorFailed() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().withMetrics(metrics).create())
+            .create();
+
+        JsonParseException e = assertThrows(JsonParseException.class, () -> gson.fromJson("{\"i\":-1}", Validating.class));
+        assertEquals(List.of("constructor Validating"), metrics.calls);
+        assertSame(e.getCause(), metrics.constructorException);
+        assertEquals("negative", metrics.constructorException.getMessage());
+    }
+
+    @Test
+    void testDefaultMethods() {
+        // Should be possible to only override some methods
+        RecordAdapterMetrics metrics = new RecordAdapterMetrics() { };
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().withMetrics(metrics).create())
+            .create();
+        assertEquals(new Inner(1), gson.fromJson(gson.toJson(new Inner(1)), Inner.class));
+    }
+}
@@ -0,0 +1,243 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordBinaryCodecTest {
+    private static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+        .create();
+
+    enum E {
+        A,
+        B {
+            @Override
+            public String toString() {
+                return "b";
+            }
+        }
+    }
+
+    record Primitives(boolean z, byte b, short s, char c, int i, long l, float f, double d) { }
+    record Boxed(Boolean z, Byte b, Short s, Character c, Integer i, Long l, Float f, Double d, String str, E e) { }
+    record N(int i) { }
+    record R(int i, String s, N n, List<N> list) { }
+
+    private static <T> T roundTrip(RecordBinaryCodec<T> codec, T value) {
+        return codec.decode(codec.encode(value));
+    }
+
+    @Test
+    void testPrimitives() {
+        RecordBinaryCodec<Primitives> codec = RecordBinaryCodec.create(GSON, Primitives.class);
+        Primitives value = new Primitives(true, (byte) -1, Short.MIN_VALUE, Character.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Float.NaN, Double.NEGATIVE_INFINITY);
+        assertEquals(value, roundTrip(codec, value));
+        value = new Primitives(false, (byte) 0, (short) 0, '\0', 0, 0, 0f, -0d);
+        assertEquals(value, roundTrip(codec, value));
+    }
+
+    @Test
+    void testEncoding() {
+        RecordBinaryCodec<N> codec = RecordBinaryCodec.create(GSON, N.class);
+        // ZigZag encoding
+        assertArrayEquals(new byte[] {1}, codec.encode(new N(-1)));
+        assertArrayEquals(new byte[] {(byte) 0x80, 0x01}, codec.encode(new N(64)));
+
+        RecordBinaryCodec<R> rCodec = RecordBinaryCodec.create(GSON, R.class);
+        // Bitmap, i, s (length + UTF-8 bytes), n
+        assertArrayEquals(new byte[] {0b011, 2, 2, 'a', 'b', 4}, rCodec.encode(new R(1, "ab", new N(2), null)));
+    }
+
+    @Test
+    void testBoxed() {
+        RecordBinaryCodec<Boxed> codec = RecordBinaryCodec.create(GSON, Boxed.class);
+        Boxed value = new Boxed(true, (byte) 1, (short) 2, 'c', 3, 4L, 5.5f, 6.5d, "ä😀", E.B);
+        assertEquals(value, roundTrip(codec, value));
+        Boxed nullValues = new Boxed(null, null, null, null, null, null, null, null, null, null);
+        assertEquals(nullValues, roundTrip(codec, nullValues));
+        // Only bitmap
+        assertEquals(2, codec.encode(nullValues).length);
+    }
+
+    @Test
+    void testNested() {
+        RecordBinaryCodec<R> codec = RecordBinaryCodec.create(GSON, R.class);
+        R value = new R(1, "a", new N(2), List.of(new N(3), new N(4)));
+        assertEquals(value, roundTrip(codec, value));
+        R nullValues = new R(1, null, null, null);
+        assertEquals(nullValues, roundTrip(codec, nullValues));
+    }
+
+    record Generic<T>(T t, Map<String, T> map) { }
+
+    @Test
+    void testGeneric() {
+        RecordBinaryCodec<Generic<N>> codec = RecordBinaryCodec.create(GSON, new TypeToken<>() {});
+        Generic<N> value = new Generic<>(new N(1), Map.of("a", new N(2)));
+        assertEquals(value, roundTrip(codec, value));
+
+        RecordBinaryCodec<Generic<String>> stringCodec = RecordBinaryCodec.create(GSON, new TypeToken<>() {});
+        Generic<String> stringValue = new Generic<>("a", Map.of("b", "c"));
+        assertEquals(stringValue, roundTrip(stringCodec, stringValue));
+    }
+
+    record Cyclic(int i, Cyclic next) { }
+
+    @Test
+    void testCyclic() {
+        RecordBinaryCodec<Cyclic> codec = RecordBinaryCodec.create(GSON, Cyclic.class);
+        Cyclic value = new Cyclic(1, new Cyclic(2, null));
+        byte[] data = codec.encode(value);
+        // Nested Record should use binary representation instead of JSON
+        assertArrayEquals(new byte[] {1, 2, 0, 4}, data);
+        assertEquals(value, codec.decode(data));
+    }
+
+    static class UpperCaseAdapter extends TypeAdapter<String> {
+        @SuppressWarnings("unused")
+        public UpperCaseAdapter() { }
+
+        @Override
+        public void write(JsonWriter out, String value) throws IOException {
+            out.value(value.toUpperCase());
+        }
+
+        @Override
+        public String read(JsonReader in) throws IOException {
+            return in.nextString().toLowerCase();
+        }
+    }
+
+    static class NullIntAdapter extends TypeAdapter<Integer> {
+        @SuppressWarnings("unused")
+        public NullIntAdapter() { }
+
+        @Override
+        public void write(JsonWriter out, Integer value) throws IOException {
+            out.value(value);
+        }
+
+        @Override
+        public Integer read(JsonReader in) throws IOException {
+            in.skipValue();
+            return null;
+        }
+    }
+
+    record WithJsonAdapter(
+        @JsonAdapter(UpperCaseAdapter.class) String s,
+        @JsonAdapter(NullIntAdapter.class) int i
+    ) { }
+
+    @Test
+    void testJsonAdapter() {
+        RecordBinaryCodec<WithJsonAdapter> codec = RecordBinaryCodec.create(GSON, WithJsonAdapter.class);
+        byte[] data = codec.encode(new WithJsonAdapter("a", 1));
+        // Values are written as JSON
+        assertArrayEquals(new byte[] {1, 3, '"', 'A', '"', 1, '1'}, data);
+        // Primitive component should use default value if adapter returns null
+        assertEquals(new WithJsonAdapter("a", 0), codec.decode(data));
+    }
+
+    static class EnumNameAdapter extends TypeAdapter<E> {
+        @SuppressWarnings("unused")
+        public EnumNameAdapter() { }
+
+        @Override
+        public void write(JsonWriter out, E value) throws IOException {
+            out.value(value.name());
+        }
+
+        @Override
+        public E read(JsonReader in) throws IOException {
+            return E.valueOf(in.nextString());
+        }
+    }
+
+    record EnumComponents(E e, @JsonAdapter(EnumNameAdapter.class) E custom) { }
+
+    @Test
+    void testEnum() {
+        RecordBinaryCodec<EnumComponents> codec = RecordBinaryCodec.create(GSON, EnumComponents.class);
+        byte[] data = codec.encode(new EnumComponents(E.B, E.B));
+        // Built-in enum adapter uses ordinal, custom adapter uses JSON
+        assertArrayEquals(new byte[] {0b11, 1, 3, '"', 'B', '"'}, data);
+        assertEquals(new EnumComponents(E.B, E.B), codec.decode(data));
+    }
+
+    @Test
+    void testMalformed() {
+        RecordBinaryCodec<R> codec = RecordBinaryCodec.create(GSON, R.class);
+        byte[] data = codec.encode(new R(1, "abc", null, null));
+
+        Exception e = assertThrows(JsonParseException.class, () -> codec.decode(new byte[0]));
+        assertEquals("Malformed binary data: Unexpected end of data at offset 0", e.getMessage());
+
+        byte[] truncated = new byte[data.length - 1];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        e = assertThrows(JsonParseException.class, () -> codec.decode(truncated));
+        assertTrue(e.getMessage().startsWith("Malformed binary data: Invalid string length 3"), e.getMessage());
+
+        byte[] trailing = new byte[data.length + 1];
+        System.arraycopy(data, 0, trailing, 0, data.length);
+        e = assertThrows(JsonParseException.class, () -> codec.decode(trailing));
+        assertEquals("Malformed binary data: Unexpected trailing data at offset " + data.length, e.getMessage());
+
+        RecordBinaryCodec<Boxed> boxedCodec = RecordBinaryCodec.create(GSON, Boxed.class);
+        // Only `e` is present, with invalid ordinal
+        e = assertThrows(JsonParseException.class, () -> boxedCodec.decode(new byte[] {0, 0b10, 5}));
+        assertEquals("Malformed binary data: Invalid enum ordinal 5 for " + E.class.getName(), e.getMessage());
+    }
+
+    @Test
+    void testMetrics() {
+        List<String> calls = new ArrayList<>();
+        RecordAdapterMetrics metrics = new RecordAdapterMetrics() {
+            @Override
+            public void recordRead(Class<? extends Record> recordClass, long durationNanos) {
+                calls.add("read " + recordClass.getSimpleName());
+            }
+
+            @Override
+            public void recordWritten(Class<? extends Record> recordClass, long durationNanos) {
+                calls.add("written " + recordClass.getSimpleName());
+            }
+        };
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().withMetrics(metrics).create())
+            .create();
+        RecordBinaryCodec<R> codec = RecordBinaryCodec.create(gson, R.class);
+        R value = new R(1, "a", new N(2), List.of(new N(3)));
+
+        byte[] data = codec.encode(value);
+        // Nested Record, Record in list (written as JSON), and enclosing Record
+        assertEquals(List.of("written N", "written N", "written R"), calls);
+
+        calls.clear();
+        assertEquals(value, codec.decode(data));
+        assertEquals(List.of("read N", "read N", "read R"), calls);
+    }
+
+    @Test
+    void testNotRecordAdapter() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> RecordBinaryCodec.create(new Gson(), N.class));
+        assertEquals("Type adapter for " + N.class.getName() + " has not been created by a RecordTypeAdapterFactory", e.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordMetadataTest {
+    record R(int myValue, @SerializedName("s") String str) { }
+
+    @Test
+    void testGet() {
+        RecordMetadata metadata = RecordMetadata.get(R.class);
+        assertSame(metadata, RecordMetadata.get(R.class));
+
+        assertEquals(2, metadata.components.length);
+        assertEquals("myValue", metadata.components[0].getName());
+        assertEquals(int.class, metadata.componentTypes[0]);
+        assertNull(metadata.serializedNames[0]);
+        assertEquals("s", metadata.serializedNames[1].value());
+    }
+
+    /**
+     * Metadata is shared between factories, so it must not contain factory specific data.
+     */
+    @Test
+    void testDifferentFactories() {
+        Gson gson1 = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+        Gson gson2 = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().withComponentNamingStrategy(RecordComponentNamingStrategy.UPPER_CAMEL_CASE).create())
+            .create();
+
+        R value = new R(1, "a");
+        assertEquals("{\"myValue\":1,\"s\":\"a\"}", gson1.toJson(value));
+        assertEquals("{\"MyValue\":1,\"s\":\"a\"}", gson2.toJson(value));
+        assertEquals(value, gson2.fromJson("{\"MyValue\":1,\"s\":\"a\"}", R.class));
+    }
+
+    record AccessorSerializedName(int i) {
+        @Override
+        @SerializedName("custom")
+        public int i() {
+            return i;
+        }
+    }
+
+    @Test
+    void testGet_Failing() {
+        // Failure should not be cached, and should be thrown again on subsequent calls
+        for (int i = 0; i < 2; i++) {
+            Exception e = assertThrows(RecordTypeAdapterException.class, () -> RecordMetadata.get(AccessorSerializedName.class));
+            assertEquals("@SerializedName on accessor method is not supported; place it on the corresponding record component instead", e.getMessage());
+        }
+    }
+}
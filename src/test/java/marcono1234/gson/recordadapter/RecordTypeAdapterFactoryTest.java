@@ -2,7 +2,9 @@ package marcono1234.gson.recordadapter;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.JsonAdapter;
@@ -17,11 +19,15 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RecordTypeAdapterFactoryTest {
     static <T> TypeAdapter<T> getDefaultAdapter(TypeToken<T> t) {
@@ -68,6 +74,22 @@ class RecordTypeAdapterFactoryTest {
         assertEquals("{\"i\":1234}", json);
     }
 
+    record ThrowingAccessor(int i) {
+        @SuppressWarnings("unused")
+        @Override
+        public int i() {
+            throw new IllegalStateException("test");
+        }
+    }
+
+    @Test
+    void testToJson_ThrowingAccessor() {
+        TypeAdapter<ThrowingAccessor> typeAdapter = getDefaultAdapter(ThrowingAccessor.class);
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.toJson(new ThrowingAccessor(1)));
+        assertEquals("Failed getting component value", e.getMessage());
+        assertEquals("test", e.getCause().getMessage());
+    }
+
     @Test
     void testToJson_Null() {
         TypeAdapter<R> typeAdapter = getDefaultAdapter(R.class);
@@ -232,6 +254,97 @@ class RecordTypeAdapterFactoryTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void testToJson_Primitives() {
+        TypeAdapter<PrimitiveComponents> typeAdapter = getDefaultAdapter(PrimitiveComponents.class);
+        PrimitiveComponents value = new PrimitiveComponents(
+            (byte) -1, (byte) 1,
+            (short) -2, (short) 2,
+            Integer.MIN_VALUE, 3,
+            Long.MAX_VALUE, 4L,
+            1.1f, 5f,
+            -0.0, 6d,
+            true, false,
+            'a', 'b',
+            null
+        );
+        String json = typeAdapter.toJson(value);
+        assertEquals("{\"b\":-1,\"B\":1,\"s\":-2,\"S\":2,\"i\":-2147483648,\"I\":3,"
+            + "\"l\":9223372036854775807,\"L\":4,\"f\":1.1,\"F\":5.0,\"d\":-0.0,\"D\":6.0,\"bool\":true,\"Bool\":false,"
+            + "\"c\":\"a\",\"C\":\"b\",\"array\":null}", json);
+    }
+
+    record FloatingPoint(float f, double d) { }
+
+    @Test
+    void testToJson_SpecialFloatingPointValues() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> getDefaultAdapter(FloatingPoint.class).toJson(new FloatingPoint(1, Double.NaN)));
+        assertEquals("NaN is not a valid double value as per JSON specification. To override this behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.", e.getMessage());
+
+        Gson gson = new GsonBuilder()
+            .serializeSpecialFloatingPointValues()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+        String json = gson.toJson(new FloatingPoint(Float.POSITIVE_INFINITY, Double.NaN));
+        assertEquals("{\"f\":Infinity,\"d\":NaN}", json);
+    }
+
+    /** Should not write primitive values directly when serializing to JSON tree */
+    @Test
+    void testToJsonTree_Primitives() {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+        JsonObject jsonObject = gson.toJsonTree(new N(1)).getAsJsonObject();
+        // Should create same Number subclass as built-in Gson adapter, e.g. Integer instead of Long
+        Class<?> expectedNumberClass = gson.toJsonTree(1, int.class).getAsNumber().getClass();
+        assertEquals(expectedNumberClass, jsonObject.get("i").getAsNumber().getClass());
+    }
+
+    @Test
+    void testFromJson_Primitives() throws IOException {
+        TypeAdapter<PrimitiveComponents> typeAdapter = getDefaultAdapter(PrimitiveComponents.class);
+        PrimitiveComponents expected = new PrimitiveComponents(
+            (byte) -1, (byte) 1,
+            (short) -2, (short) 2,
+            Integer.MIN_VALUE, 3,
+            Long.MAX_VALUE, 4L,
+            1.1f, 5f,
+            -0.0, 6d,
+            true, false,
+            'a', 'b',
+            null
+        );
+        PrimitiveComponents actual = typeAdapter.fromJson("{\"b\":-1,\"B\":1,\"s\":-2,\"S\":2,\"i\":-2147483648,\"I\":3,"
+            + "\"l\":9223372036854775807,\"L\":4,\"f\":1.1,\"F\":5,\"d\":-0.0,\"D\":6,\"bool\":true,\"Bool\":false,"
+            + "\"c\":\"a\",\"C\":\"b\",\"array\":null}");
+        assertEquals(expected, actual);
+
+        Exception e = assertThrows(JsonSyntaxException.class, () -> getDefaultAdapter(N.class).fromJson("{\"i\":1.5}"));
+        assertTrue(e.getCause() instanceof NumberFormatException);
+    }
+
+    /** Custom adapter for primitive type should be used instead of reading value directly */
+    @Test
+    void testFromJson_PrimitiveCustomAdapter() throws IOException {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapter(int.class, new TypeAdapter<Integer>() {
+                @Override
+                public void write(JsonWriter out, Integer value) {
+                    throw new AssertionError("Not needed for this test");
+                }
+
+                @Override
+                public Integer read(JsonReader in) throws IOException {
+                    return Integer.parseInt(in.nextString()) + 1;
+                }
+            })
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+            .create();
+        N actual = gson.getAdapter(N.class).fromJson("{\"i\":\"1\"}");
+        assertEquals(new N(2), actual);
+    }
+
     @Test
     void testFromJson_UnknownProperty() throws IOException {
         TypeAdapter<N> typeAdapter = getDefaultAdapter(N.class);
@@ -286,6 +399,358 @@ class RecordTypeAdapterFactoryTest {
         assertEquals(new N(2), actual);
     }
 
+    /** Record with more than 64 components */
+    record Wide(
+        int c0,
+        int c1,
+        int c2,
+        int c3,
+        int c4,
+        int c5,
+        int c6,
+        int c7,
+        int c8,
+        int c9,
+        int c10,
+        int c11,
+        int c12,
+        int c13,
+        int c14,
+        int c15,
+        int c16,
+        int c17,
+        int c18,
+        int c19,
+        int c20,
+        int c21,
+        int c22,
+        int c23,
+        int c24,
+        int c25,
+        int c26,
+        int c27,
+        int c28,
+        int c29,
+        int c30,
+        int c31,
+        int c32,
+        int c33,
+        int c34,
+        int c35,
+        int c36,
+        int c37,
+        int c38,
+        int c39,
+        int c40,
+        int c41,
+        int c42,
+        int c43,
+        int c44,
+        int c45,
+        int c46,
+        int c47,
+        int c48,
+        int c49,
+        int c50,
+        int c51,
+        int c52,
+        int c53,
+        int c54,
+        int c55,
+        int c56,
+        int c57,
+        int c58,
+        int c59,
+        int c60,
+        int c61,
+        int c62,
+        int c63,
+        int c64,
+        int c65
+    ) { }
+
+    private static String createWideJson(int excludedComponent) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < Wide.class.getRecordComponents().length; i++) {
+            if (i == excludedComponent) {
+                continue;
+            }
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("\"c").append(i).append("\":").append(i);
+        }
+        return json.append('}').toString();
+    }
+
+    @Test
+    void testFromJson_Wide() throws IOException {
+        TypeAdapter<Wide> typeAdapter = getDefaultAdapter(Wide.class);
+        Wide actual = typeAdapter.fromJson(createWideJson(-1));
+        assertEquals(0, actual.c0());
+        assertEquals(63, actual.c63());
+        assertEquals(64, actual.c64());
+        assertEquals(65, actual.c65());
+        assertEquals(actual, typeAdapter.fromJson(typeAdapter.toJson(actual)));
+
+        for (int missing : new int[] {0, 63, 64, 65}) {
+            String json = createWideJson(missing);
+            Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson(json));
+            assertEquals("Missing value for " + Wide.class.getName() + ".c" + missing + "; last property is at JSON path $." + (missing == 65 ? "c64" : "c65"), e.getMessage());
+        }
+
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"c65\":1,\"c65\":2}"));
+        assertEquals("Duplicate value for " + Wide.class.getName() + ".c65 provided by property 'c65' at JSON path $.c65", e.getMessage());
+    }
+
+    record WithCustomPrimitiveAdapter(@JsonAdapter(CustomIntAdapter.class) int custom, String s) { }
+
+    static class CustomIntAdapter extends TypeAdapter<Integer> {
+        @SuppressWarnings("unused")
+        public CustomIntAdapter() { }
+
+        @Override
+        public void write(JsonWriter out, Integer value) throws IOException {
+            out.value(value);
+        }
+
+        @Override
+        public Integer read(JsonReader in) {
+            throw new AssertionError("should not be called");
+        }
+    }
+
+    @Test
+    void testFromJson_Projection() throws IOException {
+        TypeAdapter<R> typeAdapter = getAdapter(
+            R.class,
+            RecordTypeAdapterFactory.builder().withProjection(R.class, Set.of("s", "b"))
+        );
+        // Values of skipped components are not parsed; `n` would otherwise fail because of the string
+        assertEquals(new R(0, "a", true, null), typeAdapter.fromJson("{\"i\":1,\"s\":\"a\",\"b\":true,\"n\":\"invalid\"}"));
+        // Values for skipped components may be missing
+        assertEquals(new R(0, "a", true, null), typeAdapter.fromJson("{\"b\":true,\"s\":\"a\"}"));
+        // Values for skipped components may be duplicated
+        assertEquals(new R(0, "a", true, null), typeAdapter.fromJson("{\"i\":1,\"i\":2,\"s\":\"a\",\"b\":true}"));
+
+        // Values for selected components must still be present
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"s\":\"a\"}"));
+        assertEquals("Missing value for " + R.class.getName() + ".b; last property is at JSON path $.s", e.getMessage());
+
+        // Serialization is not affected
+        assertEquals("{\"i\":1,\"s\":\"a\",\"b\":true,\"n\":{\"i\":2}}", typeAdapter.toJson(new R(1, "a", true, new N(2))));
+
+        // Projection only applies to the specified Record class
+        TypeAdapter<N> nAdapter = getAdapter(
+            N.class,
+            RecordTypeAdapterFactory.builder().withProjection(R.class, Set.of("s"))
+        );
+        assertEquals(new N(1), nAdapter.fromJson("{\"i\":1}"));
+    }
+
+    @Test
+    void testFromJson_Projection_CustomPrimitiveAdapter() throws IOException {
+        TypeAdapter<WithCustomPrimitiveAdapter> typeAdapter = getAdapter(
+            WithCustomPrimitiveAdapter.class,
+            RecordTypeAdapterFactory.builder().withProjection(WithCustomPrimitiveAdapter.class, Set.of("s"))
+        );
+        // Should use default value for primitive component with custom adapter
+        assertEquals(new WithCustomPrimitiveAdapter(0, "a"), typeAdapter.fromJson("{\"custom\":1,\"s\":\"a\"}"));
+    }
+
+    @Test
+    void testFromJson_Wide_Projection() throws IOException {
+        TypeAdapter<Wide> typeAdapter = getAdapter(
+            Wide.class,
+            RecordTypeAdapterFactory.builder().withProjection(Wide.class, Set.of("c1", "c65"))
+        );
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 66; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"c").append(i).append("\":").append(i);
+        }
+        json.append('}');
+        Wide actual = typeAdapter.fromJson(json.toString());
+        assertEquals(0, actual.c0());
+        assertEquals(1, actual.c1());
+        assertEquals(0, actual.c64());
+        assertEquals(65, actual.c65());
+
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"c1\":1}"));
+        assertEquals("Missing value for " + Wide.class.getName() + ".c65; last property is at JSON path $.c1", e.getMessage());
+    }
+
+    @Test
+    void testProjection_Invalid() {
+        RecordTypeAdapterFactory.Builder builder = RecordTypeAdapterFactory.builder();
+        Exception e = assertThrows(IllegalArgumentException.class, () -> builder.withProjection(R.class, Set.of("s", "x", "y")));
+        assertTrue(e.getMessage().startsWith("Record class " + R.class.getName() + " does not have components ["), e.getMessage());
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends Record> notRecord = (Class) String.class;
+        e = assertThrows(IllegalArgumentException.class, () -> builder.withProjection(notRecord, Set.of()));
+        assertEquals("Not a Record class: java.lang.String", e.getMessage());
+    }
+
+    record Strings(String a, String b) { }
+
+    @Test
+    void testFromJson_InternStrings() throws IOException {
+        RecordTypeAdapterFactory factory = RecordTypeAdapterFactory.builder()
+            .internStrings(Strings.class, Set.of("a"))
+            .create();
+        TypeAdapter<Strings> typeAdapter = new GsonBuilder().registerTypeAdapterFactory(factory).create().getAdapter(Strings.class);
+        Strings first = typeAdapter.fromJson("{\"a\":\"x\",\"b\":\"y\"}");
+        Strings second = typeAdapter.fromJson("{\"a\":\"x\",\"b\":\"y\"}");
+        assertEquals(new Strings("x", "y"), first);
+        assertSame(first.a(), second.a());
+        // Other component is not affected
+        assertNotSame(first.b(), second.b());
+        assertEquals(new CacheStatistics(1, 1, 0), factory.getStringInternPoolStatistics());
+
+        assertEquals(new Strings(null, "y"), typeAdapter.fromJson("{\"a\":null,\"b\":\"y\"}"));
+        assertEquals(new CacheStatistics(1, 1, 0), factory.getStringInternPoolStatistics());
+
+        // Array encoding uses the pool as well
+        RecordTypeAdapterFactory arrayFactory = RecordTypeAdapterFactory.builder()
+            .internStrings(Strings.class, Set.of("a", "b"))
+            .useArrayEncoding()
+            .create();
+        TypeAdapter<Strings> arrayAdapter = new GsonBuilder().registerTypeAdapterFactory(arrayFactory).create().getAdapter(Strings.class);
+        Strings value = arrayAdapter.fromJson("[\"x\",\"x\"]");
+        assertSame(value.a(), value.b());
+    }
+
+    @Test
+    void testInternStrings_Invalid() {
+        RecordTypeAdapterFactory.Builder builder = RecordTypeAdapterFactory.builder();
+        Exception e = assertThrows(IllegalArgumentException.class, () -> builder.internStrings(R.class, Set.of("s", "x")));
+        assertEquals("Record class " + R.class.getName() + " does not have components [x]", e.getMessage());
+
+        e = assertThrows(IllegalArgumentException.class, () -> builder.internStrings(R.class, Set.of("i")));
+        assertEquals("Component " + R.class.getName() + ".i is not of type String", e.getMessage());
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends Record> notRecord = (Class) String.class;
+        e = assertThrows(IllegalArgumentException.class, () -> builder.internStrings(notRecord, Set.of()));
+        assertEquals("Not a Record class: java.lang.String", e.getMessage());
+
+        e = assertThrows(IllegalArgumentException.class, () -> builder.stringInternPoolMaxSize(0));
+        assertEquals("Max size must be positive: 0", e.getMessage());
+
+        e = assertThrows(IllegalStateException.class, () -> RecordTypeAdapterFactory.DEFAULT.getStringInternPoolStatistics());
+        assertEquals("Deduplication of String component values is not enabled", e.getMessage());
+    }
+
+    @Test
+    void testArrayEncoding() throws IOException {
+        TypeAdapter<R> typeAdapter = getAdapter(R.class, RecordTypeAdapterFactory.builder().useArrayEncoding());
+        // Nested Record should use array encoding as well
+        assertEquals("[1,\"a\",true,[2]]", typeAdapter.toJson(new R(1, "a", true, new N(2))));
+        // Null is written to preserve positions
+        assertEquals("[1,null,true,null]", typeAdapter.toJson(new R(1, null, true, null)));
+
+        assertEquals(new R(1, "a", true, new N(2)), typeAdapter.fromJson("[1,\"a\",true,[2]]"));
+        assertEquals(new R(1, null, true, null), typeAdapter.fromJson("[1,null,true,null]"));
+        // Additional trailing elements are ignored by default
+        assertEquals(new R(1, "a", true, new N(2)), typeAdapter.fromJson("[1,\"a\",true,[2],\"x\",{}]"));
+
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("[1,\"a\"]"));
+        assertEquals("Missing value for " + R.class.getName() + ".b; array has only 2 elements at JSON path $[2]", e.getMessage());
+
+        e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("[null,\"a\",true,null]"));
+        assertEquals("JSON null is not allowed for primitive " + R.class.getName() + ".i provided by array element 0 at JSON path $[0]", e.getMessage());
+
+        // JSON object is not supported
+        assertThrows(IllegalStateException.class, () -> typeAdapter.fromJson("{\"i\":1,\"s\":\"a\",\"b\":true,\"n\":null}"));
+    }
+
+    @Test
+    void testArrayEncoding_Options() throws IOException {
+        TypeAdapter<R> typeAdapter = getAdapter(
+            R.class,
+            RecordTypeAdapterFactory.builder().useArrayEncoding().allowMissingComponentValues().disallowUnknownProperties()
+        );
+        assertEquals(new R(1, "a", false, null), typeAdapter.fromJson("[1,\"a\"]"));
+        assertEquals(new R(0, null, false, null), typeAdapter.fromJson("[]"));
+
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("[1,\"a\",true,null,2]"));
+        assertEquals("Unexpected additional array element for " + R.class + " at JSON path $[4]", e.getMessage());
+
+        TypeAdapter<R> projectionAdapter = getAdapter(
+            R.class,
+            RecordTypeAdapterFactory.builder().useArrayEncoding().withProjection(R.class, Set.of("s"))
+        );
+        // Value of skipped component is not parsed
+        assertEquals(new R(0, "a", false, null), projectionAdapter.fromJson("[1,\"a\",true,\"invalid\"]"));
+
+        // Skipped primitive components which do not use an unboxed slot must use the default value as well
+        TypeAdapter<BoxedPrimitives> boxedProjectionAdapter = getAdapter(
+            BoxedPrimitives.class,
+            RecordTypeAdapterFactory.builder().useArrayEncoding().withProjection(BoxedPrimitives.class, Set.of("s"))
+        );
+        assertEquals(new BoxedPrimitives((byte) 0, '\0', "x", 0), boxedProjectionAdapter.fromJson("[1,\"c\",\"x\",3]"));
+    }
+
+    record BoxedPrimitives(byte b, char c, String s, @JsonAdapter(CustomIntAdapter.class) int custom) { }
+
+    record Generic<T>(T t, List<T> list) { }
+
+    @Test
+    void testArrayEncoding_Generic() throws IOException {
+        TypeAdapter<Generic<N>> typeAdapter = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().useArrayEncoding().create())
+            .create()
+            .getAdapter(new TypeToken<>() {});
+        Generic<N> value = new Generic<>(new N(1), List.of(new N(2), new N(3)));
+        String json = typeAdapter.toJson(value);
+        assertEquals("[[1],[[2],[3]]]", json);
+        assertEquals(value, typeAdapter.fromJson(json));
+    }
+
+    @Test
+    void testArrayEncoding_JsonAdapter() throws IOException {
+        TypeAdapter<RuntimeType> typeAdapter = getAdapter(RuntimeType.class, RecordTypeAdapterFactory.builder().useArrayEncoding());
+        Sub value = new Sub(1, 2);
+        assertEquals("[{\"i1\":1},\"custom-write\"]", typeAdapter.toJson(new RuntimeType(value, value)));
+
+        RuntimeType actual = typeAdapter.fromJson("[{\"i1\":1},2]");
+        assertEquals(new Base(1), actual.b);
+        assertEquals(new Base(-1), actual.annotated);
+    }
+
+    @Test
+    void testArrayEncoding_Wide() throws IOException {
+        TypeAdapter<Wide> typeAdapter = getAdapter(Wide.class, RecordTypeAdapterFactory.builder().useArrayEncoding());
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 66; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(i);
+        }
+        json.append(']');
+        Wide actual = typeAdapter.fromJson(json.toString());
+        assertEquals(1, actual.c1());
+        assertEquals(65, actual.c65());
+        assertEquals(json.toString(), typeAdapter.toJson(actual));
+    }
+
+    @Test
+    void testFromJson_Wide_MissingComponentValue_Allowed() throws IOException {
+        TypeAdapter<Wide> typeAdapter = getAdapter(
+            Wide.class,
+            RecordTypeAdapterFactory.builder().allowMissingComponentValues()
+        );
+        Wide actual = typeAdapter.fromJson("{\"c1\":1,\"c64\":64}");
+        assertEquals(0, actual.c0());
+        assertEquals(1, actual.c1());
+        assertEquals(64, actual.c64());
+        assertEquals(0, actual.c65());
+    }
+
     @Test
     void testFromJson_JsonNullPrimitive() {
         TypeAdapter<N> typeAdapter = getDefaultAdapter(N.class);
@@ -303,6 +768,42 @@ class RecordTypeAdapterFactoryTest {
         assertEquals(new N(0), actual);
     }
 
+    @Test
+    void testFromJson_PropertyOrder() throws IOException {
+        TypeAdapter<R> typeAdapter = getDefaultAdapter(R.class);
+        // Different property order and unknown properties should not affect result
+        R actual = typeAdapter.fromJson("{\"x\":0,\"b\":true,\"i\":1,\"n\":{\"i\":2},\"s\":\"a\"}");
+        assertEquals(new R(1, "a", true, new N(2)), actual);
+    }
+
+    @Test
+    void testPropertyOrderStatistics() throws IOException {
+        RecordTypeAdapterFactory factory = RecordTypeAdapterFactory.builder().collectPropertyOrderStatistics().create();
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(factory)
+            .create();
+        assertEquals(new PropertyOrderStatistics(0, 0), factory.getPropertyOrderStatistics(R.class));
+
+        TypeAdapter<R> typeAdapter = gson.getAdapter(R.class);
+        typeAdapter.fromJson("{\"i\":1,\"s\":\"a\",\"b\":true,\"n\":{\"i\":2}}");
+        assertEquals(new PropertyOrderStatistics(4, 0), factory.getPropertyOrderStatistics(R.class));
+        assertEquals(new PropertyOrderStatistics(1, 0), factory.getPropertyOrderStatistics(N.class));
+
+        // 'x' is unknown, and 'b' appears before 's'
+        typeAdapter.fromJson("{\"i\":1,\"x\":0,\"b\":true,\"n\":{\"i\":2},\"s\":\"a\"}");
+        assertEquals(new PropertyOrderStatistics(6, 3), factory.getPropertyOrderStatistics(R.class));
+
+        // Adapters of other Gson instances should contribute to same statistics
+        new GsonBuilder()
+            .registerTypeAdapterFactory(factory)
+            .create()
+            .fromJson("{\"i\":3}", N.class);
+        assertEquals(new PropertyOrderStatistics(3, 0), factory.getPropertyOrderStatistics(N.class));
+
+        Exception e = assertThrows(IllegalStateException.class, () -> RecordTypeAdapterFactory.DEFAULT.getPropertyOrderStatistics(R.class));
+        assertEquals("Collection of property order statistics is not enabled", e.getMessage());
+    }
+
     @Test
     void testLocalRecord() throws IOException {
         record L(int i) { }
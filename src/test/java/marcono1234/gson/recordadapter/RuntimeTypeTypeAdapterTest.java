@@ -0,0 +1,86 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuntimeTypeTypeAdapterTest {
+    static class Base {
+        int b = 1;
+    }
+
+    static class Sub1 extends Base {
+        int s1 = 2;
+    }
+
+    static class Sub2 extends Base {
+        int s2 = 3;
+    }
+
+    static class Sub3 extends Base {
+        int s3 = 4;
+    }
+
+    @Test
+    void testGetRuntimeTypeAdapter() {
+        Gson gson = new Gson();
+        RuntimeTypeTypeAdapter<Object> adapter = new RuntimeTypeTypeAdapter<>(gson, gson.getAdapter(Object.class));
+
+        // More types than the inline cache and the additional cache can hold
+        List<Class<?>> types = new ArrayList<>(List.of(
+            Base.class, Sub1.class, Sub2.class, Sub3.class,
+            String.class, Integer.class, Long.class, Double.class,
+            int[].class, long[].class, double[].class, boolean[].class
+        ));
+        assertTrue(types.size() > RuntimeTypeTypeAdapter.MAX_ADDITIONAL_CACHED_TYPES + 2);
+
+        // Look up all types repeatedly, in different order
+        for (int round = 0; round < 3; round++) {
+            for (Class<?> type : types) {
+                assertSame(gson.getAdapter(type), adapter.getRuntimeTypeAdapter(type));
+            }
+            Collections.reverse(types);
+        }
+    }
+
+    @Test
+    void testGetRuntimeTypeAdapter_ConcurrentMiss() {
+        Gson gson = new Gson();
+        RuntimeTypeTypeAdapter<Object> adapter = new RuntimeTypeTypeAdapter<>(gson, gson.getAdapter(Object.class));
+
+        // Simulate multiple threads missing the inline cache for the same type at the same time
+        assertSame(gson.getAdapter(Sub1.class), adapter.getRuntimeTypeAdapterSlow(Sub1.class));
+        assertSame(gson.getAdapter(Sub1.class), adapter.getRuntimeTypeAdapterSlow(Sub1.class));
+
+        // Second inline cache entry should still be available for a different type
+        adapter.getRuntimeTypeAdapter(Sub2.class);
+        assertTrue(adapter.isInlineCached(Sub1.class));
+        assertTrue(adapter.isInlineCached(Sub2.class));
+    }
+
+    record WithBase(Base base, List<Base> list) { }
+
+    @Test
+    void testWrite() {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(RecordTypeAdapterFactory.builder().serializeRuntimeComponentTypes().create())
+            .create();
+
+        // Alternate runtime types to check that cache is used correctly
+        for (int i = 0; i < 3; i++) {
+            assertEquals("{\"base\":{\"s1\":2,\"b\":1},\"list\":[]}", gson.toJson(new WithBase(new Sub1(), List.of())));
+            assertEquals("{\"base\":{\"s2\":3,\"b\":1},\"list\":[]}", gson.toJson(new WithBase(new Sub2(), List.of())));
+            assertEquals("{\"base\":{\"s3\":4,\"b\":1},\"list\":[]}", gson.toJson(new WithBase(new Sub3(), List.of())));
+            assertEquals("{\"base\":{\"b\":1},\"list\":[]}", gson.toJson(new WithBase(new Base(), List.of())));
+            assertEquals("{\"list\":[]}", gson.toJson(new WithBase(null, List.of())));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package marcono1234.gson.recordadapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SealedTypeAdapterTest {
+    sealed interface Shape permits Circle, Rectangle, Polygon { }
+    record Circle(double radius) implements Shape { }
+    record Rectangle(int width, int height) implements Shape { }
+    sealed interface Polygon extends Shape permits Triangle { }
+    record Triangle(List<Integer> points) implements Polygon { }
+
+    record Drawing(String name, Shape shape) { }
+
+    private static Gson createGson(RecordTypeAdapterFactory.Builder builder) {
+        return new GsonBuilder()
+            .registerTypeAdapterFactory(builder.create())
+            .create();
+    }
+
+    private static final Gson GSON = createGson(RecordTypeAdapterFactory.builder().handleSealedInterfaces("type"));
+
+    @Test
+    void testSealed() throws IOException {
+        TypeAdapter<Shape> typeAdapter = GSON.getAdapter(Shape.class);
+        assertEquals("{\"type\":\"Circle\",\"radius\":1.5}", typeAdapter.toJson(new Circle(1.5)));
+        assertEquals("{\"type\":\"Rectangle\",\"width\":1,\"height\":2}", typeAdapter.toJson(new Rectangle(1, 2)));
+        // Record class of sealed subinterface
+        assertEquals("{\"type\":\"Triangle\",\"points\":[1,2]}", typeAdapter.toJson(new Triangle(List.of(1, 2))));
+
+        assertEquals(new Circle(1.5), typeAdapter.fromJson("{\"type\":\"Circle\",\"radius\":1.5}"));
+        assertEquals(new Rectangle(1, 2), typeAdapter.fromJson("{\"type\":\"Rectangle\",\"width\":1,\"height\":2}"));
+        assertEquals(new Triangle(List.of(1, 2)), typeAdapter.fromJson("{\"type\":\"Triangle\",\"points\":[1,2]}"));
+
+        assertEquals("null", typeAdapter.toJson(null));
+        assertNull(typeAdapter.fromJson("null"));
+
+        // Adapter for sealed subinterface only handles its own subclasses
+        TypeAdapter<Polygon> polygonAdapter = GSON.getAdapter(Polygon.class);
+        assertEquals(new Triangle(List.of(1)), polygonAdapter.fromJson("{\"type\":\"Triangle\",\"points\":[1]}"));
+        Exception e = assertThrows(JsonParseException.class, () -> polygonAdapter.fromJson("{\"type\":\"Circle\",\"radius\":1}"));
+        assertEquals("Unknown discriminator value 'Circle' for " + Polygon.class + " at JSON path $.type", e.getMessage());
+
+        // Record classes themselves are not affected
+        assertEquals("{\"radius\":1.5}", GSON.toJson(new Circle(1.5)));
+    }
+
+    @Test
+    void testDiscriminatorNotFirst() throws IOException {
+        TypeAdapter<Shape> typeAdapter = GSON.getAdapter(Shape.class);
+        assertEquals(new Rectangle(1, 2), typeAdapter.fromJson("{\"width\":1,\"type\":\"Rectangle\",\"height\":2}"));
+        assertEquals(new Rectangle(1, 2), typeAdapter.fromJson("{\"width\":1,\"height\":2,\"type\":\"Rectangle\"}"));
+
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"width\":1,\"type\":1}"));
+        assertEquals("Discriminator property 'type' for " + Shape.class + " is not a string: 1; at JSON path $", e.getMessage());
+    }
+
+    @Test
+    void testInvalidDiscriminator() {
+        TypeAdapter<Shape> typeAdapter = GSON.getAdapter(Shape.class);
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{}"));
+        assertEquals("Missing discriminator property 'type' for " + Shape.class + " at JSON path $.", e.getMessage());
+
+        e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"width\":1}"));
+        assertEquals("Missing discriminator property 'type' for " + Shape.class + " at JSON path $", e.getMessage());
+
+        e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"type\":\"Square\"}"));
+        assertEquals("Unknown discriminator value 'Square' for " + Shape.class + " at JSON path $.type", e.getMessage());
+
+        // Other settings of the factory apply
+        e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("{\"type\":\"Rectangle\",\"width\":1}"));
+        assertEquals("Missing value for " + Rectangle.class.getName() + ".height; last property is at JSON path $.width", e.getMessage());
+    }
+
+    @Test
+    void testComponent() {
+        Drawing drawing = new Drawing("d", new Rectangle(1, 2));
+        String json = GSON.toJson(drawing);
+        assertEquals("{\"name\":\"d\",\"shape\":{\"type\":\"Rectangle\",\"width\":1,\"height\":2}}", json);
+        assertEquals(drawing, GSON.fromJson(json, Drawing.class));
+
+        // Runtime type serialization must not omit the discriminator
+        Gson runtimeTypeGson = createGson(RecordTypeAdapterFactory.builder()
+            .handleSealedInterfaces("type")
+            .serializeRuntimeComponentTypes()
+        );
+        assertEquals(json, runtimeTypeGson.toJson(drawing));
+    }
+
+    sealed interface Node permits Leaf, Branch { }
+    record Leaf(int value) implements Node { }
+    record Branch(Node left, Node right) implements Node { }
+
+    @Test
+    void testCyclic() {
+        Node node = new Branch(new Leaf(1), new Branch(new Leaf(2), new Leaf(3)));
+        String json = GSON.toJson(node, Node.class);
+        assertEquals("{\"type\":\"Branch\",\"left\":{\"type\":\"Leaf\",\"value\":1},\"right\":{\"type\":\"Branch\",\"left\":{\"type\":\"Leaf\",\"value\":2},\"right\":{\"type\":\"Leaf\",\"value\":3}}}", json);
+        assertEquals(node, GSON.fromJson(json, Node.class));
+
+        // Creating adapter for Record class first should work as well
+        Gson gson = createGson(RecordTypeAdapterFactory.builder().handleSealedInterfaces("type"));
+        String branchJson = "{\"left\":{\"type\":\"Leaf\",\"value\":1},\"right\":{\"type\":\"Leaf\",\"value\":2}}";
+        assertEquals(new Branch(new Leaf(1), new Leaf(2)), gson.fromJson(branchJson, Branch.class));
+        assertEquals(json, gson.toJson(node, Node.class));
+    }
+
+    @Test
+    void testArrayEncoding() throws IOException {
+        TypeAdapter<Shape> typeAdapter = createGson(RecordTypeAdapterFactory.builder()
+            .handleSealedInterfaces("type")
+            .useArrayEncoding()
+        ).getAdapter(Shape.class);
+        assertEquals("[\"Rectangle\",1,2]", typeAdapter.toJson(new Rectangle(1, 2)));
+        assertEquals(new Rectangle(1, 2), typeAdapter.fromJson("[\"Rectangle\",1,2]"));
+
+        Exception e = assertThrows(JsonParseException.class, () -> typeAdapter.fromJson("[\"Square\",1]"));
+        assertEquals("Unknown discriminator value 'Square' for " + Shape.class + " at JSON path $[1]", e.getMessage());
+    }
+
+    @Test
+    void testNotHandled() {
+        // Sealed interfaces are not handled by default; Gson's reflection-based adapter is used instead
+        Gson gson = createGson(RecordTypeAdapterFactory.builder());
+        assertEquals("{}", gson.toJson(new Circle(1.5), Shape.class));
+    }
+
+    sealed interface Clash permits ClashingRecord { }
+    record ClashingRecord(@SerializedName("type") int i) implements Clash { }
+
+    @Test
+    void testNameClash() {
+        Exception e = assertThrows(RecordTypeAdapterException.class, () -> GSON.getAdapter(Clash.class));
+        assertEquals("Discriminator property name 'type' clashes with property name of component of " + ClashingRecord.class.getName() + ", subclass of " + Clash.class, e.getMessage());
+    }
+
+    static class Outer1 {
+        record Duplicate(int i) implements DuplicateName { }
+    }
+    static class Outer2 {
+        record Duplicate(int i) implements DuplicateName { }
+    }
+    sealed interface DuplicateName permits Outer1.Duplicate, Outer2.Duplicate { }
+
+    @Test
+    void testDuplicateDiscriminator() {
+        Exception e = assertThrows(RecordTypeAdapterException.class, () -> GSON.getAdapter(DuplicateName.class));
+        assertEquals("Discriminator 'Duplicate' for " + Outer2.Duplicate.class.getName() + " clashes with discriminator of " + Outer1.Duplicate.class.getName() + ", subclass of " + DuplicateName.class, e.getMessage());
+    }
+}
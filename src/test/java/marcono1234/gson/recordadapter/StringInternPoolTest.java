@@ -0,0 +1,55 @@
+package marcono1234.gson.recordadapter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StringInternPoolTest {
+    @Test
+    void testIntern() {
+        StringInternPool pool = new StringInternPool(10);
+        String a = new String("a");
+        String a2 = new String("a");
+        assertNotSame(a, a2);
+
+        assertSame(a, pool.intern(a));
+        assertSame(a, pool.intern(a2));
+        assertSame(a, pool.intern("a"));
+        assertEquals(1, pool.size());
+        assertEquals(new CacheStatistics(2, 1, 0), pool.getStatistics());
+    }
+
+    @Test
+    void testEviction() {
+        StringInternPool pool = new StringInternPool(2);
+        pool.intern("a");
+        pool.intern("b");
+        pool.intern("c");
+        assertEquals(2, pool.size());
+        assertEquals(new CacheStatistics(0, 3, 1), pool.getStatistics());
+
+        for (int i = 0; i < 100; i++) {
+            String s = Integer.toString(i);
+            assertEquals(s, pool.intern(s));
+        }
+        // Pool should not grow beyond max size
+        assertEquals(2, pool.size());
+        assertEquals(new CacheStatistics(0, 103, 101), pool.getStatistics());
+    }
+
+    @Test
+    void testEviction_KeepsRecentlyUsed() {
+        StringInternPool pool = new StringInternPool(2);
+        String a = new String("a");
+        pool.intern(a);
+        for (int i = 0; i < 100; i++) {
+            // Frequently used string should not be evicted by strings which are only used once
+            assertSame(a, pool.intern(new String("a")));
+            pool.intern(Integer.toString(i));
+        }
+        assertEquals(2, pool.size());
+        assertEquals(new CacheStatistics(100, 101, 99), pool.getStatistics());
+    }
+}
@@ -0,0 +1,32 @@
+package test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import marcono1234.gson.recordadapter.RecordBinaryCodec;
+import marcono1234.gson.recordadapter.RecordTypeAdapterFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecordBinaryCodecTest {
+    private final Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(RecordTypeAdapterFactory.DEFAULT)
+        .create();
+
+    public enum Color {
+        RED,
+        GREEN
+    }
+
+    public record WithEnum(int i, Color c) { }
+
+    @Test
+    void testEnumComponent() {
+        RecordBinaryCodec<WithEnum> codec = RecordBinaryCodec.create(gson, WithEnum.class);
+        WithEnum value = new WithEnum(1, Color.GREEN);
+        byte[] data = codec.encode(value);
+        // Bitmap, i, ordinal of c
+        assertEquals(3, data.length);
+        assertEquals(value, codec.decode(data));
+    }
+}